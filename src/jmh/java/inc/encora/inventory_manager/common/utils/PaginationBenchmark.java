@@ -0,0 +1,45 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.product.models.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The largest catalog needs a bigger heap, e.g. -Djmh.args="PaginationBenchmark -jvmArgs -Xmx4g"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int catalogSize;
+
+    private List<Product> products;
+    private PageRequest firstPage;
+    private PageRequest deepPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = new ArrayList<>(ProductSeed.createProductsSeed(catalogSize).values());
+        firstPage = PageRequest.of(0, 10, Sort.by("unitPrice"));
+        deepPage = PageRequest.of(catalogSize / 20, 10, Sort.by("unitPrice"));
+    }
+
+    @Benchmark
+    public Page<Product> firstPage() {
+        return InMemoryRepositoryUtil.applyPaginationAndSorting(products, firstPage, Product.class);
+    }
+
+    @Benchmark
+    public Page<Product> deepPage() {
+        return InMemoryRepositoryUtil.applyPaginationAndSorting(products, deepPage, Product.class);
+    }
+}
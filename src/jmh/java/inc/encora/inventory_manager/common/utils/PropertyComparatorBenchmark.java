@@ -0,0 +1,75 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.product.models.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyComparatorBenchmark {
+    @Param({"100000"})
+    private int catalogSize;
+
+    @Param({"name", "unitPrice", "quantityInStock", "expirationDate"})
+    private String property;
+
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = new ArrayList<>(ProductSeed.createProductsSeed(catalogSize).values());
+    }
+
+    @Benchmark
+    public List<Product> compiledComparator() {
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(InMemoryComparatorUtil.getPropertyComparator(Product.class, property, Sort.Direction.ASC));
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Product> reflectiveComparator() {
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(reflectivePropertyComparator(property));
+        return sorted;
+    }
+
+    // The comparator InMemoryComparatorUtil used to build on every request
+    private static Comparator<Product> reflectivePropertyComparator(String property) {
+        String getterName = "get" + property.substring(0, 1).toUpperCase() + property.substring(1);
+
+        try {
+            Method getter = Product.class.getMethod(getterName);
+            return (o1, o2) -> {
+                try {
+                    Object value1 = getter.invoke(o1);
+                    Object value2 = getter.invoke(o2);
+
+                    if (value1 == null && value2 == null) return 0;
+                    if (value1 == null) return 1;
+                    if (value2 == null) return -1;
+
+                    @SuppressWarnings("unchecked")
+                    Comparable<Object> comparableValue1 = (Comparable<Object>) value1;
+                    return comparableValue1.compareTo(value2);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new RuntimeException("Error accessing sort property");
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Unsupported sort property");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package inc.encora.inventory_manager.product.controllers;
+
+import inc.encora.inventory_manager.InventoryManagerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Starts the application once per thread mode with a generated catalog and drives the product endpoints
+// from many concurrent clients, reporting throughput and latency percentiles. Run with, e.g.
+// ./mvnw -Pload-test test-compile exec:exec -Dload.args="concurrency=1000 requests=50000"
+public class ProductControllerLoadBenchmark {
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/products?page=0&size=10",
+            "/api/products?page=1&size=10&sort=unitPrice,desc",
+            "/api/products?cursor=&size=10&sort=expirationDate",
+            "/api/products/search?name=pro&size=10",
+            "/api/products/search?category=Electronics&availability=in_stock&size=10",
+            "/api/products/categories",
+            "/api/products/metrics");
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would otherwise relaunch this main method in a restart class loader without its arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        Map<String, String> options = new HashMap<>(Map.of(
+                "concurrency", "400",
+                "requests", "20000",
+                "warmup", "5000",
+                "products", "10000",
+                "modes", "platform,virtual"));
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option[1]);
+        }
+
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        int requests = Integer.parseInt(options.get("requests"));
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int products = Integer.parseInt(options.get("products"));
+
+        List<String> results = new ArrayList<>();
+        for (String mode : options.get("modes").split(",")) {
+            results.add(run(mode, concurrency, requests, warmup, products));
+        }
+
+        System.out.printf("%n%-9s %11s %8s %9s %9s %9s %9s%n", "mode", "concurrency", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(String mode, int concurrency, int requests, int warmup, int products) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryManagerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "inventory.seed.size=" + products,
+                        "spring.threads.virtual.enabled=" + mode.equals("virtual"))
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            // Clients always run on virtual threads so only the server side changes between modes
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clients)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+
+                drive(httpClient, clients, baseUrl, concurrency, warmup);
+                long start = System.nanoTime();
+                Load load = drive(httpClient, clients, baseUrl, concurrency, requests);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                long[] latencies = load.latencies();
+                Arrays.sort(latencies);
+                return String.format("%-9s %11d %8d %9.0f %9.2f %9.2f %9.2f",
+                        mode, concurrency, load.errors(), latencies.length / seconds,
+                        percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+            }
+        }
+    }
+
+    private record Load(long[] latencies, int errors) {
+    }
+
+    private static Load drive(HttpClient httpClient, ExecutorService clients, String baseUrl, int concurrency, int requests)
+            throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            workers.add(clients.submit(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + ENDPOINTS.get(i % ENDPOINTS.size())))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return new Load(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+}
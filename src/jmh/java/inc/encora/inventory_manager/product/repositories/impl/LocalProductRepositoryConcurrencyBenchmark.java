@@ -0,0 +1,66 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.product.models.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Run with increasing thread counts to check scaling, e.g.
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="LocalProductRepositoryConcurrencyBenchmark -t 4"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalProductRepositoryConcurrencyBenchmark {
+    @Param({"100000"})
+    private int catalogSize;
+
+    private LocalProductRepository repository;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new LocalProductRepository();
+        repository.deleteAll();
+        repository.saveAll(ProductSeed.createProductsSeed(catalogSize).values());
+
+        List<String> allIds = new ArrayList<>();
+        repository.findAll().forEach(product -> allIds.add(product.getId()));
+        ids = allIds.toArray(String[]::new);
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public Optional<Product> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<Product> updateById() {
+        return repository.updateById(randomId(), product -> product.setQuantityInStock(product.getQuantityInStock() + 1));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Product> mixedRead() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Optional<Product> mixedWrite() {
+        return repository.updateById(randomId(), product -> product.setQuantityInStock(product.getQuantityInStock() + 1));
+    }
+}
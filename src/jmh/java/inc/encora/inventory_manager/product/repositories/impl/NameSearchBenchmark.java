@@ -0,0 +1,60 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.product.models.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The trigram index needs a large heap at this size, e.g. -Djmh.args="NameSearchBenchmark -jvmArgs -Xmx4g"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NameSearchBenchmark {
+    @Param({"1000000"})
+    private int catalogSize;
+
+    @Param({"ultra", "e-reader oasis (homegadget)", "xyz"})
+    private String query;
+
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+
+    private LocalProductRepository repository;
+    private List<Product> snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new LocalProductRepository();
+        repository.deleteAll();
+        repository.saveAll(ProductSeed.createProductsSeed(catalogSize).values());
+
+        snapshot = new ArrayList<>();
+        repository.findAll().forEach(snapshot::add);
+    }
+
+    @Benchmark
+    public Page<Product> indexedSearch() {
+        return repository.findByNameOrCategoryOrQuantityInStock(pageable, query, null, null);
+    }
+
+    // The pre-index filter: lowercase every name and test it against the query
+    @Benchmark
+    public int linearScan() {
+        int matches = 0;
+        for (Product product : snapshot) {
+            if (product.getName().toLowerCase().contains(query.toLowerCase())) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,74 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.seed.ProductSeedOptions;
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.storage.CategoryDictionary;
+import inc.encora.inventory_manager.product.repositories.storage.CompactProduct;
+import inc.encora.inventory_manager.product.repositories.storage.ProductId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Full scans with the stored search keys against lowercasing every product, as the filter used to.
+// Compare allocation rates with the GC profiler, e.g.
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="SearchFilterBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchFilterBenchmark {
+    @Param({"100000"})
+    private int catalogSize;
+
+    private final List<String> categories = List.of("Audio", "Storage");
+
+    private List<Product> snapshot;
+    private List<CompactProduct> stored;
+    private ProductSearchFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Stores search keys the way LocalProductRepository does when storing a product
+        CategoryDictionary dictionary = new CategoryDictionary();
+        snapshot = new ArrayList<>(ProductSeed.generate(ProductSeedOptions.builder().size(catalogSize).build()));
+        stored = new ArrayList<>(snapshot.size());
+        for (Product product : snapshot) {
+            stored.add(CompactProduct.of(ProductId.of(product.getId()), product, dictionary));
+        }
+        filter = ProductSearchFilter.of("pro", categories, AvailabilityStatus.IN_STOCK, dictionary);
+    }
+
+    @Benchmark
+    public int storedSearchKeys() {
+        int matches = 0;
+        for (CompactProduct product : stored) {
+            if (filter.test(product)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int lowercasePerProduct() {
+        String query = "pro".toLowerCase(Locale.ROOT);
+        List<String> loweredCategories = categories.stream().map(category -> category.toLowerCase(Locale.ROOT)).toList();
+
+        int matches = 0;
+        for (Product product : snapshot) {
+            if (product.getName().toLowerCase(Locale.ROOT).contains(query)
+                    && loweredCategories.contains(product.getCategory().toLowerCase(Locale.ROOT))
+                    && product.getQuantityInStock() > 0) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,79 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.seed.ProductSeedOptions;
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.wal.ProductChangeLog;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full-catalog searches on one repository against the same catalog split over shards, e.g.
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ShardedSearchBenchmark -p catalogSize=1000000 -jvmArgs -Xmx4g"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedSearchBenchmark {
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"local", "sharded"})
+    private String repositoryType;
+
+    private final Pageable pricePage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "unitPrice"));
+    private final Pageable deepPage = PageRequest.of(50, 20, Sort.by("name"));
+    private final Pageable multiSortPage = PageRequest.of(0, 20, Sort.by("category").and(Sort.by("unitPrice")));
+
+    private ProductRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = repositoryType.equals("sharded")
+                ? new ShardedProductRepository(8, 0, ProductChangeLog.NONE)
+                : new LocalProductRepository();
+        repository.saveAll(ProductSeed.generate(ProductSeedOptions.builder().size(catalogSize).build()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (repository instanceof ShardedProductRepository sharded) {
+            sharded.destroy();
+        }
+    }
+
+    // The availability filter has no index, so every product is checked and counted
+    @Benchmark
+    public Page<Product> filterSortedByIndex() {
+        return repository.findByNameOrCategoryOrQuantityInStock(pricePage, null, null, AvailabilityStatus.IN_STOCK);
+    }
+
+    @Benchmark
+    public Page<Product> filterByName() {
+        return repository.findByNameOrCategoryOrQuantityInStock(pricePage, "pro", null, AvailabilityStatus.IN_STOCK);
+    }
+
+    @Benchmark
+    public Page<Product> unindexedSort() {
+        return repository.findAll(multiSortPage);
+    }
+
+    @Benchmark
+    public Page<Product> deepIndexedPage() {
+        return repository.findAll(deepPage);
+    }
+
+    @Benchmark
+    public Page<Product> categoryFilter() {
+        return repository.findByNameOrCategoryOrQuantityInStock(pricePage, null, List.of("Electronics"), AvailabilityStatus.ALL);
+    }
+}
@@ -0,0 +1,82 @@
+package inc.encora.inventory_manager.product.repositories.storage;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.seed.ProductSeedOptions;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Measures the retained heap per product of a seeded catalog: as Product objects keyed by id, which is
+// how the repository used to store them, as the compact products it stores now, and for the whole
+// repository with its indexes, e.g.
+// ./mvnw -Pfootprint test-compile exec:exec -Dfootprint.args="size=1000000"
+public class ProductFootprintReport {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int size = 200_000;
+        for (String arg : args) {
+            if (arg.startsWith("size=")) {
+                size = Integer.parseInt(arg.substring("size=".length()));
+            }
+        }
+
+        ProductSeedOptions options = ProductSeedOptions.builder().size(size).build();
+        System.out.printf("%-34s %14s%n", "Storage", "bytes/product");
+
+        long before = usedHeap();
+        Map<String, Product> products = productsById(options);
+        report("Product objects by id", usedHeap() - before, products.size());
+        products = null;
+
+        before = usedHeap();
+        Map<ProductId, CompactProduct> compactProducts = compactProductsById(options);
+        report("Compact products by id", usedHeap() - before, compactProducts.size());
+        compactProducts = null;
+
+        before = usedHeap();
+        LocalProductRepository repository = repository(options);
+        report("LocalProductRepository", usedHeap() - before, repository.count());
+    }
+
+    // Each catalog is built in its own method, so the seeded products are unreachable once it returns
+    private static Map<String, Product> productsById(ProductSeedOptions options) {
+        Map<String, Product> products = new ConcurrentHashMap<>();
+        for (Product product : ProductSeed.generate(options)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    private static Map<ProductId, CompactProduct> compactProductsById(ProductSeedOptions options) {
+        CategoryDictionary categories = new CategoryDictionary();
+        Map<ProductId, CompactProduct> products = new ConcurrentHashMap<>();
+        for (Product product : ProductSeed.generate(options)) {
+            ProductId id = ProductId.of(product.getId());
+            products.put(id, CompactProduct.of(id, product, categories));
+        }
+        return products;
+    }
+
+    private static LocalProductRepository repository(ProductSeedOptions options) {
+        LocalProductRepository repository = new LocalProductRepository();
+        repository.saveAll(ProductSeed.generate(options));
+        return repository;
+    }
+
+    private static void report(String storage, long bytes, long count) {
+        System.out.printf("%-34s %14d%n", storage, bytes / count);
+    }
+
+    // Several collections, so objects freed by the previous step are gone before measuring
+    private static long usedHeap() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,73 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.seed.ProductSeedOptions;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Time to rebuild the catalog on startup, from a log holding every write against a snapshot with an
+// empty log behind it. Each measurement is one cold restart, e.g.
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ProductStartupBenchmark -p catalogSize=10000000 -jvmArgs -Xmx16g"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProductStartupBenchmark {
+    @Param({"1000000", "10000000"})
+    private int catalogSize;
+
+    @Param({"log", "snapshot"})
+    private String startFrom;
+
+    private Path directory;
+    private ProductWriteAheadLog log;
+
+    private ProductWriteAheadLog openLog() {
+        return new ProductWriteAheadLog(directory.resolve("products.wal"), FsyncPolicy.OS, 5,
+                new ProductSnapshotFile(directory.resolve("products.snapshot")), 0, 0);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("product-startup");
+        ProductWriteAheadLog writer = openLog();
+        LocalProductRepository repository = new LocalProductRepository(writer);
+        writer.replay(repository);
+        repository.saveAll(ProductSeed.generate(ProductSeedOptions.builder().size(catalogSize).build()));
+        if (startFrom.equals("snapshot")) {
+            writer.snapshot(repository);
+        }
+        writer.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLog() {
+        log.close();
+    }
+
+    @Benchmark
+    public long restart() {
+        log = openLog();
+        LocalProductRepository repository = new LocalProductRepository(log);
+        log.replay(repository);
+        return repository.count();
+    }
+}
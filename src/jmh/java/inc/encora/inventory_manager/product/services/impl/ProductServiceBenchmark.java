@@ -0,0 +1,127 @@
+package inc.encora.inventory_manager.product.services.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.dtos.InventoryMetricDTO;
+import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.dtos.ProductLookupResultDTO;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+import inc.encora.inventory_manager.product.services.cache.ProductSearchCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Service hot paths across catalog sizes, with the search cache disabled so every call reaches the repository.
+// The larger sizes need a heap to match, e.g.
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ProductServiceBenchmark -p catalogSize=1000,100000 -jvmArgs -Xmx4g"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+    // Writes reuse the seeded categories so they don't grow the category list being measured
+    private static final String[] SEED_CATEGORIES = {
+            "Electronics", "Peripherals", "Computing", "Mobile Devices", "Storage", "Audio", "Visual", "Networking"
+    };
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int catalogSize;
+
+    private final Pageable namePage = PageRequest.of(0, 10, Sort.by("name"));
+    private final Pageable pricePage = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "unitPrice"));
+    private final List<String> categories = List.of("Electronics", "Audio");
+
+    private ProductServiceImpl productService;
+    private String[] ids;
+    private List<String> batchIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalProductRepository repository = new LocalProductRepository();
+        repository.deleteAll();
+        repository.saveAll(ProductSeed.createProductsSeed(catalogSize).values());
+        productService = new ProductServiceImpl(repository, new ProductSearchCache(0), event -> {});
+
+        ids = new String[catalogSize];
+        int i = 0;
+        for (Product product : repository.findAll()) {
+            ids[i++] = product.getId();
+        }
+
+        // A cart-sized lookup where one id in ten no longer exists
+        batchIds = new ArrayList<>(1000);
+        for (int j = 0; j < 1000; j++) {
+            batchIds.add((j % 10 == 9) ? "missing-" + j : ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        }
+    }
+
+    @Benchmark
+    public Page<Product> listPage() {
+        return productService.findAll(pricePage);
+    }
+
+    @Benchmark
+    public Page<Product> searchByName() {
+        return productService.search(namePage, "pro", null, null);
+    }
+
+    @Benchmark
+    public Page<Product> searchByCategoryAndAvailability() {
+        return productService.search(pricePage, null, categories, AvailabilityStatus.IN_STOCK);
+    }
+
+    @Benchmark
+    public Page<Product> searchAllFilters() {
+        return productService.search(pricePage, "ultra", categories, AvailabilityStatus.IN_STOCK);
+    }
+
+    @Benchmark
+    public List<ProductLookupResultDTO> batchGet() {
+        return productService.findAllById(batchIds);
+    }
+
+    @Benchmark
+    public List<InventoryMetricDTO> inventoryMetrics() {
+        return productService.getInventoryMetrics();
+    }
+
+    @Benchmark
+    public List<String> allCategories() {
+        return productService.findAllCategories();
+    }
+
+    // Saving and deleting in pairs keeps the catalog at its nominal size across iterations
+    @Benchmark
+    public Product saveThenDelete() {
+        Product saved = productService.save(randomProduct());
+        productService.deleteById(saved.getId());
+        return saved;
+    }
+
+    @Benchmark
+    public Product update() {
+        return productService.update(ids[ThreadLocalRandom.current().nextInt(ids.length)], randomProduct(), null);
+    }
+
+    private static ProductDTO randomProduct() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new ProductDTO(
+                "Benchmark Product " + random.nextInt(1000),
+                SEED_CATEGORIES[random.nextInt(SEED_CATEGORIES.length)],
+                BigDecimal.valueOf(random.nextInt(50, 1500)),
+                LocalDate.now().plusMonths(random.nextInt(1, 37)),
+                random.nextInt(0, 200));
+    }
+}
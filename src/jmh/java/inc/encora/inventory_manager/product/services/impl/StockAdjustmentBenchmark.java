@@ -0,0 +1,71 @@
+package inc.encora.inventory_manager.product.services.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+import inc.encora.inventory_manager.product.services.cache.ProductSearchCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Contention on a single hot SKU, compared with the GET + PUT round trip it replaces, e.g.
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="StockAdjustmentBenchmark -t 4"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockAdjustmentBenchmark {
+    private static final int INITIAL_STOCK = Integer.MAX_VALUE / 2;
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    private LocalProductRepository repository;
+    private ProductServiceImpl productService;
+    private String hotId;
+    private String[] ids;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = new LocalProductRepository();
+        repository.deleteAll();
+        for (Product product : ProductSeed.createProductsSeed(catalogSize).values()) {
+            product.setQuantityInStock(INITIAL_STOCK);
+            repository.save(product);
+        }
+        productService = new ProductServiceImpl(repository, new ProductSearchCache(0), event -> {});
+
+        List<String> allIds = new ArrayList<>();
+        repository.findAll().forEach(product -> allIds.add(product.getId()));
+        ids = allIds.toArray(String[]::new);
+        hotId = ids[0];
+    }
+
+    @Benchmark
+    public Product adjustHotSku() {
+        return productService.adjustStock(hotId, -1, null);
+    }
+
+    @Benchmark
+    public Product adjustRandomSku() {
+        return productService.adjustStock(ids[ThreadLocalRandom.current().nextInt(ids.length)], -1, null);
+    }
+
+    // What clients did before: read the product and write every field back, which loses concurrent decrements
+    @Benchmark
+    public Product readThenUpdateHotSku() {
+        Product current = repository.findById(hotId).orElseThrow();
+        return productService.update(hotId, new ProductDTO(
+                current.getName(),
+                current.getCategory(),
+                current.getUnitPrice(),
+                current.getExpirationDate(),
+                current.getQuantityInStock() - 1), null);
+    }
+}
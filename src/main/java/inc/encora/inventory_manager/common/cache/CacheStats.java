@@ -0,0 +1,12 @@
+package inc.encora.inventory_manager.common.cache;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Cache usage counters since startup")
+public record CacheStats(
+        @Schema(description = "Lookups answered from the cache", example = "1520") long hits,
+        @Schema(description = "Lookups that had to be computed, including stale entries", example = "310") long misses,
+        @Schema(description = "Entries dropped to stay within the size bound", example = "12") long evictions,
+        @Schema(description = "Entries currently cached", example = "1000") int size,
+        @Schema(description = "Maximum number of entries", example = "1000") int maxEntries) {
+}
@@ -0,0 +1,72 @@
+package inc.encora.inventory_manager.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Bounded LRU cache whose entries are only valid for the data generation they were computed at, so a
+// single generation bump invalidates everything without touching the entries. Stale entries are
+// replaced on their next lookup or aged out by the LRU order. A bound of 0 disables caching.
+public class GenerationalLruCache<K, V> {
+    private record Entry<V>(long generation, V value) {
+    }
+
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public GenerationalLruCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > GenerationalLruCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // The generation must be read before the loader runs, so a write racing with the load can only
+    // leave behind an entry that is already stale
+    public V get(K key, long generation, Supplier<V> loader) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.generation() == generation) {
+                hits.increment();
+                return entry.value();
+            }
+        }
+
+        misses.increment();
+        V value = loader.get();
+        if (maxEntries > 0) {
+            synchronized (entries) {
+                Entry<V> current = entries.get(key);
+                if (current == null || current.generation() < generation) {
+                    entries.put(key, new Entry<>(generation, value));
+                }
+            }
+        }
+        return value;
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maxEntries);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package inc.encora.inventory_manager.common.config;
+
+import inc.encora.inventory_manager.common.metrics.ControllerTimingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsWebConfig implements WebMvcConfigurer {
+
+  private final ControllerTimingInterceptor controllerTimingInterceptor;
+
+  public MetricsWebConfig(ControllerTimingInterceptor controllerTimingInterceptor) {
+    this.controllerTimingInterceptor = controllerTimingInterceptor;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(controllerTimingInterceptor).addPathPatterns("/api/**");
+  }
+}
@@ -0,0 +1,34 @@
+package inc.encora.inventory_manager.common.config;
+
+import inc.encora.inventory_manager.product.repositories.wal.FsyncPolicy;
+import inc.encora.inventory_manager.product.repositories.wal.ProductChangeLog;
+import inc.encora.inventory_manager.product.repositories.wal.ProductSnapshotFile;
+import inc.encora.inventory_manager.product.repositories.wal.ProductWriteAheadLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class ProductChangeLogConfig {
+
+  // The log is closed, and synced one last time, when the context shuts down
+  @Bean
+  public ProductChangeLog productChangeLog(
+      @Value("${inventory.wal.enabled:false}") boolean enabled,
+      @Value("${inventory.wal.path:data/products.wal}") String path,
+      @Value("${inventory.wal.fsync:group}") FsyncPolicy fsyncPolicy,
+      @Value("${inventory.wal.group-commit-ms:5}") long groupCommitMillis,
+      @Value("${inventory.wal.snapshot.path:data/products.snapshot}") String snapshotPath,
+      @Value("${inventory.wal.snapshot.interval-ms:60000}") long snapshotIntervalMillis,
+      @Value("${inventory.wal.snapshot.min-log-bytes:67108864}") long snapshotMinLogBytes) {
+    if (!enabled) {
+      return ProductChangeLog.NONE;
+    }
+
+    // Snapshots are always loaded on startup, the interval only decides whether new ones are taken
+    return new ProductWriteAheadLog(Path.of(path), fsyncPolicy, groupCommitMillis,
+        new ProductSnapshotFile(Path.of(snapshotPath)), snapshotIntervalMillis, snapshotMinLogBytes);
+  }
+}
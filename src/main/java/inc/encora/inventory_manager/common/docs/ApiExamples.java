@@ -17,7 +17,8 @@ public class ApiExamples {
               "expirationDate": "2026-12-31",
               "quantityInStock": 15,
               "createdAt": "2025-06-25",
-              "updatedAt": "2025-06-25"
+              "updatedAt": "2025-06-25",
+              "version": 1
             }
           ],
           "pageable": {
@@ -31,6 +32,64 @@ public class ApiExamples {
       }
       """;
 
+  public static final String PRODUCT_CURSOR_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Products retrieved successfully",
+        "data": {
+          "content": [
+            {
+              "id": "550e8400-e29b-41d4-a716-446655440000",
+              "name": "Laptop Pro (TechCo)",
+              "category": "Electronics",
+              "unitPrice": 1299.99,
+              "expirationDate": "2026-12-31",
+              "quantityInStock": 15,
+              "createdAt": "2025-06-25",
+              "updatedAt": "2025-06-25",
+              "version": 1
+            }
+          ],
+          "size": 1,
+          "hasNext": true,
+          "nextCursor": "eyJuYW1lIjoiTGFwdG9wIFBybyAoVGVjaENvKSIsImlkIjoiNTUwZTg0MDAtZTI5Yi00MWQ0LWE3MTYtNDQ2NjU1NDQwMDAwIn0"
+        },
+        "error": null
+      }
+      """;
+
+  public static final String SEARCH_CACHE_STATS_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Search cache statistics retrieved successfully",
+        "data": {
+          "hits": 1520,
+          "misses": 310,
+          "evictions": 12,
+          "size": 1000,
+          "maxEntries": 1000
+        },
+        "error": null
+      }
+      """;
+
+  public static final String PRODUCT_EXPORT_RESPONSE = """
+      {"id":"550e8400-e29b-41d4-a716-446655440000","name":"Laptop Pro (TechCo)","category":"Electronics","unitPrice":1299.99,"expirationDate":"2026-12-31","quantityInStock":15,"createdAt":"2025-06-25","updatedAt":"2025-06-25","version":1}
+      {"id":"550e8400-e29b-41d4-a716-446655440001","name":"Gaming Mouse X (GigaGear)","category":"Peripherals","unitPrice":79.99,"expirationDate":"2027-03-15","quantityInStock":50,"createdAt":"2025-06-25","updatedAt":"2025-06-25","version":1}
+      """;
+
+  public static final String PRODUCT_EVENTS_RESPONSE = """
+      id:1
+      event:stock_changed
+      data:{"type":"stock_changed","productId":"550e8400-e29b-41d4-a716-446655440000","product":{"id":"550e8400-e29b-41d4-a716-446655440000","name":"Laptop Pro (TechCo)","category":"Electronics","unitPrice":1299.99,"expirationDate":"2026-12-31","quantityInStock":14,"createdAt":"2025-06-25","updatedAt":"2025-06-26","version":2}}
+
+      id:2
+      event:deleted
+      data:{"type":"deleted","productId":"550e8400-e29b-41d4-a716-446655440001","product":null}
+      """;
+
   public static final String PRODUCT_CREATED_RESPONSE = """
       {
         "status": "Ok",
@@ -44,12 +103,94 @@ public class ApiExamples {
           "expirationDate": "2027-03-15",
           "quantityInStock": 50,
           "createdAt": "2025-06-25",
-          "updatedAt": "2025-06-25"
+          "updatedAt": "2025-06-25",
+          "version": 1
+        },
+        "error": null
+      }
+      """;
+
+  public static final String PRODUCT_IMPORT_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Products imported successfully",
+        "data": {
+          "totalRows": 10000,
+          "importedRows": 9998,
+          "failedRows": 2,
+          "elapsedMillis": 850,
+          "rowsPerSecond": 11764,
+          "errors": [
+            {
+              "row": 42,
+              "errors": {
+                "unitPrice": "Unit price cannot be 0 or negative"
+              }
+            },
+            {
+              "row": 977,
+              "errors": {
+                "expirationDate": "Invalid value"
+              }
+            }
+          ]
+        },
+        "error": null
+      }
+      """;
+
+  public static final String PRODUCT_FOUND_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Product retrieved successfully",
+        "data": {
+          "id": "550e8400-e29b-41d4-a716-446655440001",
+          "name": "Gaming Mouse X (GigaGear)",
+          "category": "Peripherals",
+          "unitPrice": 79.99,
+          "expirationDate": "2027-03-15",
+          "quantityInStock": 50,
+          "createdAt": "2025-06-25",
+          "updatedAt": "2025-06-25",
+          "version": 3
         },
         "error": null
       }
       """;
 
+  public static final String PRODUCT_BATCH_GET_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Products retrieved successfully",
+        "data": [
+          {
+            "id": "550e8400-e29b-41d4-a716-446655440001",
+            "found": true,
+            "product": {
+              "id": "550e8400-e29b-41d4-a716-446655440001",
+              "name": "Gaming Mouse X (GigaGear)",
+              "category": "Peripherals",
+              "unitPrice": 79.99,
+              "expirationDate": "2027-03-15",
+              "quantityInStock": 50,
+              "createdAt": "2025-06-25",
+              "updatedAt": "2025-06-25",
+              "version": 1
+            }
+          },
+          {
+            "id": "unknown-id",
+            "found": false,
+            "product": null
+          }
+        ],
+        "error": null
+      }
+      """;
+
   public static final String VALIDATION_ERROR_RESPONSE = """
       {
         "status": "Bad Request",
@@ -63,6 +204,30 @@ public class ApiExamples {
       }
       """;
 
+  public static final String BAD_REQUEST_RESPONSE = """
+      {
+        "status": "Bad Request",
+        "statusCode": 400,
+        "message": "Invalid Request",
+        "data": null,
+        "error": {
+          "details": "Invalid cursor"
+        }
+      }
+      """;
+
+  public static final String PRECONDITION_FAILED_RESPONSE = """
+      {
+        "status": "Precondition Failed",
+        "statusCode": 412,
+        "message": "Version Mismatch",
+        "data": null,
+        "error": {
+          "details": "Product has been modified"
+        }
+      }
+      """;
+
   public static final String NOT_FOUND_RESPONSE = """
       {
         "status": "Not Found",
@@ -95,6 +260,61 @@ public class ApiExamples {
       }
       """;
 
+  public static final String STOCK_ADJUSTED_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Product stock adjusted successfully",
+        "data": {
+          "id": "550e8400-e29b-41d4-a716-446655440001",
+          "name": "Gaming Mouse X (GigaGear)",
+          "category": "Peripherals",
+          "unitPrice": 79.99,
+          "expirationDate": "2027-03-15",
+          "quantityInStock": 47,
+          "createdAt": "2025-06-25",
+          "updatedAt": "2025-06-26",
+          "version": 4
+        },
+        "error": null
+      }
+      """;
+
+  public static final String STOCK_BATCH_RESPONSE = """
+      {
+        "status": "Ok",
+        "statusCode": 200,
+        "message": "Stock adjustments processed successfully",
+        "data": [
+          {
+            "productId": "550e8400-e29b-41d4-a716-446655440001",
+            "delta": -3,
+            "status": "applied",
+            "quantityInStock": 47
+          },
+          {
+            "productId": "550e8400-e29b-41d4-a716-446655440000",
+            "delta": -20,
+            "status": "insufficient_stock",
+            "quantityInStock": 15
+          }
+        ],
+        "error": null
+      }
+      """;
+
+  public static final String INSUFFICIENT_STOCK_RESPONSE = """
+      {
+        "status": "Conflict",
+        "statusCode": 409,
+        "message": "Insufficient Stock",
+        "data": null,
+        "error": {
+          "details": "Only 2 units in stock"
+        }
+      }
+      """;
+
   public static final String CATEGORIES_RESPONSE = """
       {
         "status": "Ok",
@@ -0,0 +1,28 @@
+package inc.encora.inventory_manager.common.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Page of results addressed by an opaque cursor instead of a page number")
+public class CursorPageDTO<T> {
+    @Schema(description = "Page content")
+    private List<T> content;
+
+    @Schema(description = "Number of elements in this page", example = "10")
+    private int size;
+
+    @Schema(description = "Whether more elements follow this page", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Cursor to request the next page with, null on the last page", example = "eyJuYW1lIjoiTGFwdG9wIFBybyIsImlkIjoiNTUwZTg0MDAifQ")
+    private String nextCursor;
+}
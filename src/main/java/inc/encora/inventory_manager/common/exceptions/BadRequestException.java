@@ -0,0 +1,8 @@
+package inc.encora.inventory_manager.common.exceptions;
+
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -46,4 +46,49 @@ public class GlobalExceptionHandler {
                 error
         );
     }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(BadRequestException.class)
+    public ApiResponseDTO<Object, Map<String, String>> handleBadRequestExceptions(BadRequestException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("details", ex.getMessage());
+
+        return new ApiResponseDTO<>(
+                "Bad Request",
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Request",
+                null,
+                error
+        );
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(InsufficientStockException.class)
+    public ApiResponseDTO<Object, Map<String, String>> handleInsufficientStockExceptions(InsufficientStockException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("details", ex.getMessage());
+
+        return new ApiResponseDTO<>(
+                "Conflict",
+                HttpStatus.CONFLICT.value(),
+                "Insufficient Stock",
+                null,
+                error
+        );
+    }
+
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ApiResponseDTO<Object, Map<String, String>> handlePreconditionFailedExceptions(PreconditionFailedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("details", ex.getMessage());
+
+        return new ApiResponseDTO<>(
+                "Precondition Failed",
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Version Mismatch",
+                null,
+                error
+        );
+    }
 }
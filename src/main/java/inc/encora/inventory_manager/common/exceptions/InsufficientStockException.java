@@ -0,0 +1,8 @@
+package inc.encora.inventory_manager.common.exceptions;
+
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package inc.encora.inventory_manager.common.exceptions;
+
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
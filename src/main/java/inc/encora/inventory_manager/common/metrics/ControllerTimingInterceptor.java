@@ -0,0 +1,55 @@
+package inc.encora.inventory_manager.common.metrics;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Async handlers, such as the SSE and export streams, are timed up to the point they hand the response
+// off, so long-lived streams do not show up as request latency
+@Component
+public class ControllerTimingInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = ControllerTimingInterceptor.class.getName() + ".start";
+
+    private final LayerTimers layerTimers;
+
+    public ControllerTimingInterceptor(LayerTimers layerTimers) {
+        this.layerTimers = layerTimers;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        // The dispatch that resumes an async request was already timed when the handler returned
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        record(request, handler, null);
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        // Exceptions turned into responses by GlobalExceptionHandler only show up as a request attribute
+        record(request, handler, (ex != null) ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE));
+    }
+
+    private void record(HttpServletRequest request, Object handler, Throwable exception) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+
+        request.removeAttribute(START_ATTRIBUTE);
+        layerTimers.record("controller", handlerMethod.getBeanType(), handlerMethod.getMethod(), exception,
+                System.nanoTime() - start);
+    }
+}
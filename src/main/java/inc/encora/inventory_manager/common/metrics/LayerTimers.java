@@ -0,0 +1,43 @@
+package inc.encora.inventory_manager.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Latency of calls entering the controller, service and repository layers, tagged by layer, class, method
+// and the exception the call ended with ("none" on success), so slow or failing calls can be attributed.
+@Component
+public class LayerTimers {
+    public static final String METRIC_NAME = "inventory.layer.latency";
+
+    private final MeterRegistry meterRegistry;
+    // Timer lookups by tags are comparatively slow, so each combination is resolved once
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(String layer, Class<?> type, Method method, Class<?> exception) {
+    }
+
+    public LayerTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String layer, Class<?> type, Method method, Throwable exception, long elapsedNanos) {
+        TimerKey key = new TimerKey(layer, type, method, (exception == null) ? null : exception.getClass());
+        timers.computeIfAbsent(key, this::register).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent in controller, service and repository calls")
+                .tag("layer", key.layer())
+                .tag("class", key.type().getSimpleName())
+                .tag("method", key.method().getName())
+                .tag("exception", (key.exception() == null) ? "none" : key.exception().getSimpleName())
+                .register(meterRegistry);
+    }
+}
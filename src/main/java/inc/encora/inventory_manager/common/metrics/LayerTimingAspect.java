@@ -0,0 +1,43 @@
+package inc.encora.inventory_manager.common.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+// Controllers are timed by ControllerTimingInterceptor instead: their handler methods are private,
+// which a class-based proxy cannot intercept.
+@Aspect
+@Component
+public class LayerTimingAspect {
+    private final LayerTimers layerTimers;
+
+    public LayerTimingAspect(LayerTimers layerTimers) {
+        this.layerTimers = layerTimers;
+    }
+
+    @Around("within(inc.encora.inventory_manager..*) && @within(org.springframework.stereotype.Service)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service", joinPoint);
+    }
+
+    @Around("within(inc.encora.inventory_manager..*) && @within(org.springframework.stereotype.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("repository", joinPoint);
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        Throwable exception = null;
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e;
+            throw e;
+        } finally {
+            layerTimers.record(layer, joinPoint.getTarget().getClass(),
+                    ((MethodSignature) joinPoint.getSignature()).getMethod(), exception, System.nanoTime() - start);
+        }
+    }
+}
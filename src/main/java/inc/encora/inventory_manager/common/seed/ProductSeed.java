@@ -5,51 +5,153 @@ import inc.encora.inventory_manager.product.models.Product;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 public class ProductSeed {
+    public static final int NEAR_EXPIRY_DAYS = 30;
+
+    // Products are generated in fixed chunks, each from its own random stream, so the output does not
+    // depend on how many threads end up running them.
+    private static final int CHUNK_SIZE = 8192;
+    private static final double MAX_PRICE = 2500.00;
+    private static final int MAX_SHELF_LIFE_DAYS = 3 * 365;
+
+    private static final String[] CATEGORY_NAMES = {
+            "Electronics", "Peripherals", "Computing", "Mobile Devices", "Storage", "Audio", "Visual", "Networking",
+            "Home Appliances", "Kitchen", "Office Supplies", "Gaming", "Wearables", "Smart Home", "Photography",
+            "Lighting", "Cables & Adapters", "Power", "Outdoor", "Health & Fitness", "Toys", "Automotive",
+            "Garden", "Pet Supplies"
+    };
+    private static final String[] ADJECTIVES = {
+            "Ultra", "Compact", "Wireless", "Portable", "Smart", "Ergonomic", "High-Speed", "Dual-Band", "Mini",
+            "Professional", "Heavy-Duty", "Silent", "Rechargeable", "Foldable", "Waterproof", "Premium", "Slim"
+    };
+    private static final String[] NOUNS = {
+            "Laptop", "Mouse", "Keyboard", "Monitor", "Webcam", "Headphones", "Microphone", "Printer", "Router",
+            "SSD", "Smartphone", "Tablet", "Smartwatch", "Drone", "VR Headset", "Hard Drive", "USB Drive",
+            "E-Reader", "Projector", "Speaker", "Charger", "Docking Station", "Blender", "Desk Lamp", "Camera"
+    };
+    private static final String[] SUFFIXES = {"Pro", "Lite", "Max", "Plus", "Elite", "Gear", "Oasis"};
+    private static final String[] BRANDS = {
+            "TechCo", "GigaGear", "Innovate", "VisionPro", "SoundWave",
+            "DataSwift", "MobileTech", "HomeGadget", "FutureLink", "Aura"
+    };
+
     public static Map<String, Product> createProductsSeed(int size) {
         Map<String, Product> products = new HashMap<>();
+        for (Product product : generate(ProductSeedOptions.builder().size(size).build())) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
 
-        String[] productNames = {
-                "Laptop Pro", "Gaming Mouse X", "Ergonomic Keyboard", "4K Ultra Monitor",
-                "HD Webcam Pro", "Wireless Headphones", "Studio Microphone", "Laser Printer 3000",
-                "Dual-Band Router", "High-Speed SSD", "Smartphone Elite", "Tablet Lite",
-                "Smartwatch Gear", "Mini Drone Pro", "VR Headset X1", "Portable HDD",
-                "Super USB Drive", "E-Reader Oasis", "Compact Projector", "Bluetooth Speaker"
-        };
-        String[] categories = {
-                "Electronics", "Peripherals", "Computing", "Mobile Devices",
-                "Storage", "Audio", "Visual", "Networking"
-        };
-
-        String[] brands = {
-                "TechCo", "GigaGear", "Innovate", "VisionPro", "SoundWave",
-                "DataSwift", "MobileTech", "HomeGadget", "FutureLink", "Aura"
-        };
-
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-
-        for (int i = 0; i < size; i++) {
-            String name = productNames[i % productNames.length] + " (" + brands[i % brands.length] + ")";
-            String category = categories[i % categories.length];
-            BigDecimal unitPrice = BigDecimal.valueOf(random.nextDouble(50.00, 1500.00)).setScale(2, RoundingMode.HALF_UP);
-            LocalDate expirationDate = LocalDate.now().plusMonths(random.nextInt(1, 37)); // Expires within 1 to 36 months
-            Integer quantityInStock = random.nextInt(1, 200);
-
-            Product product = Product.builder()
-                    .name(name)
-                    .category(category)
-                    .unitPrice(unitPrice)
-                    .expirationDate(expirationDate)
-                    .quantityInStock(quantityInStock)
-                    .build();
+    public static List<Product> generate(ProductSeedOptions options) {
+        String[] categories = categoryNames(options.getCategories());
+        double[] categoryWeights = cumulativeZipfWeights(categories.length, options.getCategorySkew());
+        Product[] products = new Product[options.getSize()];
 
-            products.put(product.getId(), product);
+        // Split sequentially so chunk streams are independent yet fixed by the seed alone
+        SplittableRandom root = new SplittableRandom(options.getSeed());
+        SplittableRandom[] chunkRandoms = new SplittableRandom[(products.length + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int chunk = 0; chunk < chunkRandoms.length; chunk++) {
+            chunkRandoms[chunk] = root.split();
         }
 
-        return products;
+        IntStream.range(0, chunkRandoms.length).parallel().forEach(chunk -> {
+            SplittableRandom random = chunkRandoms[chunk];
+            int end = Math.min(products.length, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                products[i] = createProduct(random, options, categories, categoryWeights);
+            }
+        });
+
+        return Arrays.asList(products);
+    }
+
+    private static Product createProduct(SplittableRandom random, ProductSeedOptions options,
+                                         String[] categories, double[] categoryWeights) {
+        LocalDate referenceDate = options.getReferenceDate();
+        String id = new UUID(
+                (random.nextLong() & ~0xF000L) | 0x4000L,
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L).toString();
+
+        // Log-uniform prices: many cheap items and a long tail of expensive ones
+        BigDecimal unitPrice = BigDecimal.valueOf(Math.exp(random.nextDouble() * Math.log(MAX_PRICE)))
+                .setScale(2, RoundingMode.HALF_UP)
+                .max(BigDecimal.valueOf(1, 2));
+
+        int quantityInStock = (random.nextDouble() < options.getOutOfStockRatio())
+                ? 0
+                : 1 + (int) Math.min(999, -Math.log(1 - random.nextDouble()) * 40);
+
+        LocalDate expirationDate = (random.nextDouble() < options.getNearExpiryRatio())
+                ? referenceDate.plusDays(random.nextInt(NEAR_EXPIRY_DAYS + 1))
+                : referenceDate.plusDays(random.nextInt(NEAR_EXPIRY_DAYS + 1, MAX_SHELF_LIFE_DAYS));
+
+        return Product.builder()
+                .id(id)
+                .name(createName(random))
+                .category(categories[pickZipf(random, categoryWeights)])
+                .unitPrice(unitPrice)
+                .expirationDate(expirationDate)
+                .quantityInStock(quantityInStock)
+                .createdAt(referenceDate)
+                .updatedAt(referenceDate)
+                .build();
+    }
+
+    // Between one and five words so name search sees both short and long candidates
+    private static String createName(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int adjectives = random.nextInt(3);
+        for (int i = 0; i < adjectives; i++) {
+            name.append(ADJECTIVES[random.nextInt(ADJECTIVES.length)]).append(' ');
+        }
+        name.append(NOUNS[random.nextInt(NOUNS.length)]);
+        if (random.nextBoolean()) {
+            name.append(' ').append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            name.append(' ').append((char) ('A' + random.nextInt(26))).append(random.nextInt(1, 1000));
+        }
+        if (random.nextInt(10) < 7) {
+            name.append(" (").append(BRANDS[random.nextInt(BRANDS.length)]).append(')');
+        }
+        return name.toString();
+    }
+
+    private static String[] categoryNames(int count) {
+        String[] names = new String[Math.max(count, 1)];
+        for (int i = 0; i < names.length; i++) {
+            String base = CATEGORY_NAMES[i % CATEGORY_NAMES.length];
+            int round = i / CATEGORY_NAMES.length;
+            names[i] = (round == 0) ? base : base + " " + (round + 1);
+        }
+        return names;
+    }
+
+    private static double[] cumulativeZipfWeights(int count, double skew) {
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int rank = 0; rank < count; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pickZipf(SplittableRandom random, double[] cumulativeWeights) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        int rank = (index >= 0) ? index + 1 : -index - 1;
+        return Math.min(rank, cumulativeWeights.length - 1);
     }
 }
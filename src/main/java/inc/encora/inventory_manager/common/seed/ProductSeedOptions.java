@@ -0,0 +1,34 @@
+package inc.encora.inventory_manager.common.seed;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Builder(toBuilder = true)
+@Getter
+public class ProductSeedOptions {
+    @Builder.Default
+    private int size = 20;
+
+    // The same seed, size and reference date always produce the same catalog, ids included
+    @Builder.Default
+    private long seed = 42L;
+
+    @Builder.Default
+    private int categories = 8;
+
+    // Zipf exponent of the category distribution, 0 spreads products evenly
+    @Builder.Default
+    private double categorySkew = 1.0;
+
+    @Builder.Default
+    private double outOfStockRatio = 0.05;
+
+    // Share of products expiring within ProductSeed.NEAR_EXPIRY_DAYS of the reference date
+    @Builder.Default
+    private double nearExpiryRatio = 0.10;
+
+    @Builder.Default
+    private LocalDate referenceDate = LocalDate.now();
+}
@@ -0,0 +1,45 @@
+package inc.encora.inventory_manager.common.seed;
+
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.wal.ProductChangeLog;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Fills the repository once every bean exists, before the server starts taking requests. The change
+// log is replayed first, and only a catalog that has no history is generated from the inventory.seed.*
+// properties. A size of 0 starts with an empty catalog.
+@Component
+public class ProductSeeder implements SmartInitializingSingleton {
+    private final ProductRepository productRepository;
+    private final ProductChangeLog changeLog;
+    private final ProductSeedOptions options;
+
+    public ProductSeeder(ProductRepository productRepository,
+                         ProductChangeLog changeLog,
+                         @Value("${inventory.seed.size:20}") int size,
+                         @Value("${inventory.seed.random-seed:42}") long seed,
+                         @Value("${inventory.seed.categories:8}") int categories,
+                         @Value("${inventory.seed.category-skew:1.0}") double categorySkew,
+                         @Value("${inventory.seed.out-of-stock-ratio:0.05}") double outOfStockRatio,
+                         @Value("${inventory.seed.near-expiry-ratio:0.10}") double nearExpiryRatio) {
+        this.productRepository = productRepository;
+        this.changeLog = changeLog;
+        this.options = ProductSeedOptions.builder()
+                .size(size)
+                .seed(seed)
+                .categories(categories)
+                .categorySkew(categorySkew)
+                .outOfStockRatio(outOfStockRatio)
+                .nearExpiryRatio(nearExpiryRatio)
+                .build();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long recoveredRecords = changeLog.replay(productRepository);
+        if (recoveredRecords == 0 && options.getSize() > 0) {
+            productRepository.saveAll(ProductSeed.generate(options));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.common.exceptions.PreconditionFailedException;
+import org.springframework.http.ETag;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ETagUtil {
+    public static String of(long version) {
+        return ETag.create(Long.toString(version)).formattedTag();
+    }
+
+    // Returns the versions an If-Match header accepts, or null when any version is acceptable.
+    // If-Match uses strong comparison, so weak or foreign tags in the list can never match.
+    public static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        List<ETag> eTags = ETag.parse(ifMatch);
+        if (eTags.stream().anyMatch(ETag::isWildcard)) {
+            return null;
+        }
+
+        Set<Long> versions = new HashSet<>();
+        for (ETag eTag : eTags) {
+            if (!eTag.weak()) {
+                try {
+                    versions.add(Long.parseLong(eTag.tag()));
+                } catch (NumberFormatException e) {
+                    // Not one of ours, so no version matches it
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("Product has been modified");
+        }
+        return versions;
+    }
+}
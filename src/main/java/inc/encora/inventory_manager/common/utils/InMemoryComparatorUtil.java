@@ -1,39 +1,129 @@
 package inc.encora.inventory_manager.common.utils;
 
-import java.lang.reflect.InvocationTargetException;
+import org.springframework.data.domain.Sort;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 public class InMemoryComparatorUtil {
+    private static final Map<ComparatorKey, Comparator<?>> COMPARATORS = new ConcurrentHashMap<>();
+    // Sorts after every int and every epoch day a LocalDate can hold, so nulls go last
+    private static final long NULL_KEY = Long.MAX_VALUE;
+
+    private record ComparatorKey(Class<?> entity, String property, Sort.Direction direction) {
+    }
+
     public static <T> Comparator<T> getPropertyComparator(Class<T> entity, String property) {
+        return getPropertyComparator(entity, property, Sort.Direction.ASC);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Comparator<T> getPropertyComparator(Class<T> entity, String property, Sort.Direction direction) {
+        return (Comparator<T>) COMPARATORS.computeIfAbsent(
+                new ComparatorKey(entity, property, direction),
+                key -> {
+                    Comparator<T> ascending = createComparator(entity, property);
+                    // Nulls go last in ascending order, so they come first once reversed
+                    return direction.isDescending() ? ascending.reversed() : ascending;
+                });
+    }
+
+    // Chains the comparators of every sort order, or returns null when the sort is unsorted
+    public static <T> Comparator<T> getSortComparator(Class<T> entity, Sort sort) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> propertyComparator = getPropertyComparator(entity, order.getProperty(), order.getDirection());
+            comparator = (comparator == null) ? propertyComparator : comparator.thenComparing(propertyComparator);
+        }
+        return comparator;
+    }
+
+    private static <T> Comparator<T> createComparator(Class<T> entity, String property) {
         String getterName = "get" + property.substring(0, 1).toUpperCase() + property.substring(1);
 
+        Method getter;
         try {
-            Method getter = entity.getMethod(getterName);
-            return (o1, o2) -> {
-                try {
-                    Object value1 = getter.invoke(o1);
-                    Object value2 = getter.invoke(o2);
-
-                    // Handle null values with nullsLast (or nullsFirst)
-                    if (value1 == null && value2 == null) return 0;
-                    if (value1 == null) return 1; // value1 is null, value2 is not, so value1 comes last
-                    if (value2 == null) return -1; // value2 is null, value1 is not, so value2 comes last
-
-                    if (value1 instanceof Comparable) {
-                        @SuppressWarnings("unchecked")
-                        Comparable<Object> comparableValue1 = (Comparable<Object>) value1;
-                        return comparableValue1.compareTo(value2);
-                    } else {
-                        // The value is not comparable, so we treat it as equal
-                        return 0;
-                    }
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException("Error accessing sort property");
-                }
-            };
+            getter = entity.getMethod(getterName);
         } catch (NoSuchMethodException e) {
             throw new IllegalArgumentException("Unsupported sort property");
         }
+
+        Class<?> type = getter.getReturnType();
+        if (type == Integer.class) {
+            Function<T, Integer> accessor = compileGetter(getter);
+            return comparingLongKey(o -> {
+                Integer value = accessor.apply(o);
+                return (value == null) ? NULL_KEY : value;
+            });
+        } else if (type == LocalDate.class) {
+            Function<T, LocalDate> accessor = compileGetter(getter);
+            return comparingLongKey(o -> {
+                LocalDate value = accessor.apply(o);
+                return (value == null) ? NULL_KEY : value.toEpochDay();
+            });
+        } else if (type == BigDecimal.class) {
+            return nullsLastComparing(InMemoryComparatorUtil.<T, BigDecimal>compileGetter(getter), BigDecimal::compareTo);
+        } else if (type == String.class) {
+            return nullsLastComparing(InMemoryComparatorUtil.<T, String>compileGetter(getter), String::compareTo);
+        }
+
+        return nullsLastComparing(InMemoryComparatorUtil.<T, Object>compileGetter(getter), (value1, value2) -> {
+            if (value1 instanceof Comparable) {
+                @SuppressWarnings("unchecked")
+                Comparable<Object> comparableValue1 = (Comparable<Object>) value1;
+                return comparableValue1.compareTo(value2);
+            } else {
+                // The value is not comparable, so we treat it as equal
+                return 0;
+            }
+        });
+    }
+
+    // Compares primitive keys, for properties whose values map to a long in order
+    private static <T> Comparator<T> comparingLongKey(ToLongFunction<T> key) {
+        return (o1, o2) -> Long.compare(key.applyAsLong(o1), key.applyAsLong(o2));
+    }
+
+    private static <T, V> Comparator<T> nullsLastComparing(Function<T, V> accessor, Comparator<V> valueComparator) {
+        return (o1, o2) -> {
+            V value1 = accessor.apply(o1);
+            V value2 = accessor.apply(o2);
+
+            // Handle null values with nullsLast
+            if (value1 == null && value2 == null) return 0;
+            if (value1 == null) return 1;
+            if (value2 == null) return -1;
+
+            return valueComparator.compare(value1, value2);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, V> Function<T, V> compileGetter(Method getter) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(getter);
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(handle.type().wrap().returnType(), getter.getDeclaringClass()));
+            return (Function<T, V>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Error compiling sort property accessor", e);
+        }
     }
 }
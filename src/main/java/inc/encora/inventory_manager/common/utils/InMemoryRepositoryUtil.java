@@ -3,48 +3,105 @@ package inc.encora.inventory_manager.common.utils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
 public class InMemoryRepositoryUtil {
+    // Partial selection only pays off while the requested prefix is small compared to the data
+    private static final int PARTIAL_SORT_MAX_RATIO = 8;
+
     public static <T> Page<T> applyPaginationAndSorting(List<T> data, Pageable pageable, Class<T> entityClass) {
-        Comparator<T> comparator = null;
-        Sort sort = pageable.getSort();
+        Comparator<T> comparator = InMemoryComparatorUtil.getSortComparator(entityClass, pageable.getSort());
 
-        for (Sort.Order order : sort) {
-            String property = order.getProperty();
-            Comparator<T> propertyComparator = InMemoryComparatorUtil.getPropertyComparator(entityClass, property);
+        int start = (int) Math.min(pageable.getOffset(), data.size());
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), data.size());
 
-            if (order.isDescending()) {
-                propertyComparator = propertyComparator.reversed();
-            }
+        List<T> pagedData;
+        if (start >= end) {
+            pagedData = Collections.emptyList();
+        } else if (comparator == null) {
+            pagedData = data.subList(start, end);
+        } else if ((long) end * PARTIAL_SORT_MAX_RATIO <= data.size()) {
+            pagedData = selectSmallest(data, comparator, end).subList(start, end);
+        } else {
+            List<T> sortedData = new ArrayList<>(data);
+            sortedData.sort(comparator);
+            pagedData = sortedData.subList(start, end);
+        }
+
+        return new PageImpl<>(pagedData, pageable, data.size());
+    }
+
+    // Returns the first k elements of the stable sort of data, using a bounded max-heap of indexes.
+    // Ties are broken by position so every page agrees with the full sort at its boundaries.
+    static <T> List<T> selectSmallest(List<T> data, Comparator<T> comparator, int k) {
+        IndexOrder order = (i, j) -> {
+            int result = comparator.compare(data.get(i), data.get(j));
+            return (result != 0) ? result : Integer.compare(i, j);
+        };
 
-            if (comparator == null) {
-                comparator = propertyComparator;
-            } else {
-                comparator = comparator.thenComparing(propertyComparator);
+        int[] heap = new int[k];
+        int size = 0;
+        for (int i = 0; i < data.size(); i++) {
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, order);
+            } else if (order.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, size, order);
             }
         }
 
-        List<T> sortedData = new ArrayList<>(data);
-        if (comparator != null) {
-            sortedData.sort(comparator);
+        // Draining the max-heap yields the selection from largest to smallest
+        Object[] result = new Object[size];
+        for (int remaining = size; remaining > 0; remaining--) {
+            result[remaining - 1] = data.get(heap[0]);
+            heap[0] = heap[remaining - 1];
+            siftDown(heap, remaining - 1, order);
         }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), sortedData.size());
+        @SuppressWarnings("unchecked")
+        List<T> selected = (List<T>) Arrays.asList(result);
+        return selected;
+    }
 
-        List<T> pagedData;
-        if (start >= sortedData.size()) {
-            pagedData = Collections.emptyList();
-        } else {
-            pagedData = sortedData.subList(start, end);
+    @FunctionalInterface
+    private interface IndexOrder {
+        int compare(int i, int j);
+    }
+
+    private static void siftUp(int[] heap, int position, IndexOrder order) {
+        int value = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (order.compare(value, heap[parent]) <= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
         }
+        heap[position] = value;
+    }
 
-        return new PageImpl<>(pagedData, pageable, sortedData.size());
+    private static void siftDown(int[] heap, int size, IndexOrder order) {
+        int value = heap[0];
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(value, heap[child]) >= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = value;
     }
 }
@@ -0,0 +1,45 @@
+package inc.encora.inventory_manager.common.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inc.encora.inventory_manager.common.exceptions.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Turns keyset positions into opaque URL-safe cursors. Key values travel as strings and are
+// converted back to the sort property's type by the repository.
+public class ScrollPositionCodec {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    public static String encode(KeysetScrollPosition position) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((key, value) -> keys.put(key, (value == null) ? null : value.toString()));
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(keys));
+        } catch (IOException e) {
+            throw new IllegalStateException("Error encoding cursor", e);
+        }
+    }
+
+    // A blank cursor asks for the first window
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            Map<String, String> keys = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+            return ScrollPosition.forward(keys);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package inc.encora.inventory_manager.product.constants;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public enum ProductChangeType {
+    CREATED("created"),
+    UPDATED("updated"),
+    DELETED("deleted"),
+    // Only the quantity in stock changed, through the stock endpoints
+    STOCK_CHANGED("stock_changed");
+
+    private final String value;
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,27 @@
+package inc.encora.inventory_manager.product.constants;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public enum StockAdjustmentStatus {
+    APPLIED("applied"),
+    NOT_FOUND("not_found"),
+    INSUFFICIENT_STOCK("insufficient_stock"),
+    OUT_OF_RANGE("out_of_range"),
+    VERSION_MISMATCH("version_mismatch"),
+    // Valid on its own, but discarded because another adjustment of an all-or-nothing batch failed
+    ROLLED_BACK("rolled_back");
+
+    private final String value;
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -1,10 +1,23 @@
 package inc.encora.inventory_manager.product.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import inc.encora.inventory_manager.common.dtos.ApiResponseDTO;
+import inc.encora.inventory_manager.common.dtos.CursorPageDTO;
 import inc.encora.inventory_manager.common.docs.ApiExamples;
+import inc.encora.inventory_manager.common.utils.ETagUtil;
+import inc.encora.inventory_manager.common.utils.ScrollPositionCodec;
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.dtos.ProductBatchGetDTO;
 import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.dtos.ProductImportResultDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentBatchDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentResultDTO;
+import inc.encora.inventory_manager.product.events.ProductChangeBroadcaster;
 import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.services.ProductImportService;
 import inc.encora.inventory_manager.product.services.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,38 +28,64 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
-@CrossOrigin({ "http://localhost:8080" })
+@CrossOrigin(origins = { "http://localhost:8080" }, exposedHeaders = { HttpHeaders.ETAG })
 @RestController
 @RequestMapping("/api/products")
 @Tag(name = "Products", description = "Product management operations including CRUD operations, search, stock management, and inventory metrics")
 public class ProductController {
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService, ObjectMapper objectMapper,
+                             ProductChangeBroadcaster productChangeBroadcaster) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.objectMapper = objectMapper;
+        this.productChangeBroadcaster = productChangeBroadcaster;
     }
 
-    @Operation(summary = "Get all products", description = "Retrieves all products with pagination and sorting")
-    @ApiResponse(responseCode = "200", description = "Success", content = @Content(examples = @ExampleObject(value = ApiExamples.PRODUCT_SUCCESS_RESPONSE)))
+    @Operation(summary = "Get all products", description = "Retrieves all products with pagination and sorting. Passing a cursor (empty for the first page) switches to cursor pagination")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Success", content = @Content(examples = {
+                    @ExampleObject(name = "Page", value = ApiExamples.PRODUCT_SUCCESS_RESPONSE),
+                    @ExampleObject(name = "Cursor", value = ApiExamples.PRODUCT_CURSOR_RESPONSE)
+            })),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(examples = @ExampleObject(value = ApiExamples.BAD_REQUEST_RESPONSE)))
+    })
     @GetMapping
     private ResponseEntity<?> findAll(
-            @PageableDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
+            @PageableDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor) {
+        Object results = (cursor == null)
+                ? productService.findAll(pageable)
+                : toCursorPage(productService.findAll(ScrollPositionCodec.decode(cursor), pageable.getSort(), pageable.getPageSize()));
         return ResponseEntity.ok(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
                 "Products retrieved successfully",
-                productService.findAll(pageable),
+                results,
                 null));
     }
 
@@ -66,15 +105,38 @@ public class ProductController {
                 null));
     }
 
-    @Operation(summary = "Search products", description = "Search products by name, category, and availability")
-    @ApiResponse(responseCode = "200", description = "Search results", content = @Content(examples = @ExampleObject(value = ApiExamples.PRODUCT_SUCCESS_RESPONSE)))
+    @Operation(summary = "Import products", description = "Creates products in bulk from a JSON array or newline-delimited JSON. Valid rows are saved in batches and invalid rows are reported individually")
+    @ApiResponse(responseCode = "200", description = "Import finished", content = @Content(examples = @ExampleObject(value = ApiExamples.PRODUCT_IMPORT_RESPONSE)))
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    private ResponseEntity<?> importProducts(InputStream body) throws IOException {
+        ProductImportResultDTO result = productImportService.importProducts(body);
+        return ResponseEntity.ok(new ApiResponseDTO<>(
+                "Ok",
+                HttpStatus.OK.value(),
+                "Products imported successfully",
+                result,
+                null));
+    }
+
+    @Operation(summary = "Search products", description = "Search products by name, category, and availability. Passing a cursor (empty for the first page) switches to cursor pagination")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search results", content = @Content(examples = {
+                    @ExampleObject(name = "Page", value = ApiExamples.PRODUCT_SUCCESS_RESPONSE),
+                    @ExampleObject(name = "Cursor", value = ApiExamples.PRODUCT_CURSOR_RESPONSE)
+            })),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(examples = @ExampleObject(value = ApiExamples.BAD_REQUEST_RESPONSE)))
+    })
     @GetMapping("/search")
     private ResponseEntity<?> searchProducts(
             @PageableDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable,
             @Parameter(description = "Product name filter") @RequestParam(required = false, defaultValue = "") String name,
             @Parameter(description = "Categories to filter") @RequestParam(required = false) List<String> category,
-            @Parameter(description = "Availability status") @RequestParam(required = false, defaultValue = "all") AvailabilityStatus availability) {
-        Page<Product> results = productService.search(pageable, name, category, availability);
+            @Parameter(description = "Availability status") @RequestParam(required = false, defaultValue = "all") AvailabilityStatus availability,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor) {
+        Object results = (cursor == null)
+                ? productService.search(pageable, name, category, availability)
+                : toCursorPage(productService.search(
+                        ScrollPositionCodec.decode(cursor), pageable.getSort(), pageable.getPageSize(), name, category, availability));
         return ResponseEntity.ok(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
@@ -83,16 +145,101 @@ public class ProductController {
                 null));
     }
 
+    @Operation(summary = "Get search cache statistics", description = "Retrieves the hit, miss and eviction counters of the search result cache")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved", content = @Content(examples = @ExampleObject(value = ApiExamples.SEARCH_CACHE_STATS_RESPONSE)))
+    @GetMapping("/search/cache-stats")
+    private ResponseEntity<?> getSearchCacheStats() {
+        return ResponseEntity.ok(new ApiResponseDTO<>(
+                "Ok",
+                HttpStatus.OK.value(),
+                "Search cache statistics retrieved successfully",
+                productService.getSearchCacheStats(),
+                null));
+    }
+
+    @Operation(summary = "Export products", description = "Streams the products matching the search filters as newline-delimited JSON, one product per line")
+    @ApiResponse(responseCode = "200", description = "Export stream", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, examples = @ExampleObject(value = ApiExamples.PRODUCT_EXPORT_RESPONSE)))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    private ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Product name filter") @RequestParam(required = false, defaultValue = "") String name,
+            @Parameter(description = "Categories to filter") @RequestParam(required = false) List<String> category,
+            @Parameter(description = "Availability status") @RequestParam(required = false, defaultValue = "all") AvailabilityStatus availability) {
+        // Flushing per product would defeat the generator's buffer
+        ObjectWriter writer = objectMapper.writerFor(Product.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Product> products = productService.export(name, category, availability);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                // Lines are terminated explicitly instead of separating root values with a space
+                generator.setRootValueSeparator(null);
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    writer.writeValue(generator, product);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Stream product changes", description = "Pushes product creations, updates, deletions and stock changes as server-sent events. Imports are not streamed, and a client that falls behind is disconnected so it can reconnect and reload")
+    @ApiResponse(responseCode = "200", description = "Event stream", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, examples = @ExampleObject(value = ApiExamples.PRODUCT_EVENTS_RESPONSE)))
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    private SseEmitter streamChanges() {
+        return productChangeBroadcaster.subscribe();
+    }
+
+    @Operation(summary = "Get a product", description = "Retrieves a product by ID. Its ETag is the product version, so If-None-Match answers 304 while it is unchanged")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Product found", content = @Content(examples = @ExampleObject(value = ApiExamples.PRODUCT_FOUND_RESPONSE))),
+            @ApiResponse(responseCode = "304", description = "Product not modified"),
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE)))
+    })
+    @GetMapping("/{id}")
+    private ResponseEntity<?> findById(@PathVariable String id, WebRequest request) {
+        Product product = productService.findById(id);
+        String eTag = ETagUtil.of(product.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(new ApiResponseDTO<>(
+                "Ok",
+                HttpStatus.OK.value(),
+                "Product retrieved successfully",
+                product,
+                null));
+    }
+
+    @Operation(summary = "Get products by ID", description = "Retrieves up to 5000 products in one call. Results follow the order of the requested ids, and ids without a product are marked as not found")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Products retrieved", content = @Content(examples = @ExampleObject(value = ApiExamples.PRODUCT_BATCH_GET_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "Validation errors", content = @Content(examples = @ExampleObject(value = ApiExamples.VALIDATION_ERROR_RESPONSE)))
+    })
+    @PostMapping("/batch-get")
+    private ResponseEntity<?> findAllById(@Valid @RequestBody ProductBatchGetDTO batch) {
+        return ResponseEntity.ok(new ApiResponseDTO<>(
+                "Ok",
+                HttpStatus.OK.value(),
+                "Products retrieved successfully",
+                productService.findAllById(batch.getIds()),
+                null));
+    }
+
     @Operation(summary = "Update a product", description = "Updates an existing product by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Product updated", content = @Content(examples = @ExampleObject(value = ApiExamples.PRODUCT_CREATED_RESPONSE))),
             @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE))),
-            @ApiResponse(responseCode = "400", description = "Validation errors", content = @Content(examples = @ExampleObject(value = ApiExamples.VALIDATION_ERROR_RESPONSE)))
+            @ApiResponse(responseCode = "400", description = "Validation errors", content = @Content(examples = @ExampleObject(value = ApiExamples.VALIDATION_ERROR_RESPONSE))),
+            @ApiResponse(responseCode = "412", description = "Version mismatch", content = @Content(examples = @ExampleObject(value = ApiExamples.PRECONDITION_FAILED_RESPONSE)))
     })
     @PutMapping("/{id}")
-    private ResponseEntity<?> update(@PathVariable String id, @Valid @RequestBody ProductDTO productDTO) {
-        Product updatedProduct = productService.update(id, productDTO);
-        return ResponseEntity.ok(new ApiResponseDTO<>(
+    private ResponseEntity<?> update(
+            @PathVariable String id,
+            @Valid @RequestBody ProductDTO productDTO,
+            @Parameter(description = "ETags the product must still have one of") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Product updatedProduct = productService.update(id, productDTO, ETagUtil.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtil.of(updatedProduct.getVersion())).body(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
                 "Product updated successfully",
@@ -119,12 +266,13 @@ public class ProductController {
     @Operation(summary = "Mark product as out of stock", description = "Sets product quantity to 0")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Success", content = @Content(examples = @ExampleObject(value = ApiExamples.STOCK_SUCCESS_RESPONSE))),
-            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE)))
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE))),
+            @ApiResponse(responseCode = "412", description = "Version mismatch", content = @Content(examples = @ExampleObject(value = ApiExamples.PRECONDITION_FAILED_RESPONSE)))
     })
     @PostMapping("/{id}/outofstock")
-    private ResponseEntity<?> markOutOfStock(@PathVariable String id) {
-        productService.markProductOutOfStock(id);
-        return ResponseEntity.ok(new ApiResponseDTO<>(
+    private ResponseEntity<?> markOutOfStock(@PathVariable String id, @Parameter(description = "ETags the product must still have one of") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Product product = productService.markProductOutOfStock(id, ETagUtil.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtil.of(product.getVersion())).body(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
                 "Product marked as out of stock successfully",
@@ -135,12 +283,13 @@ public class ProductController {
     @Operation(summary = "Mark product as in stock", description = "Sets product quantity to default value (10)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Success", content = @Content(examples = @ExampleObject(value = ApiExamples.STOCK_SUCCESS_RESPONSE))),
-            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE)))
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE))),
+            @ApiResponse(responseCode = "412", description = "Version mismatch", content = @Content(examples = @ExampleObject(value = ApiExamples.PRECONDITION_FAILED_RESPONSE)))
     })
     @PostMapping("/{id}/instock")
-    private ResponseEntity<?> markInStock(@PathVariable String id) {
-        productService.markProductInStock(id);
-        return ResponseEntity.ok(new ApiResponseDTO<>(
+    private ResponseEntity<?> markInStock(@PathVariable String id, @Parameter(description = "ETags the product must still have one of") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Product product = productService.markProductInStock(id, ETagUtil.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtil.of(product.getVersion())).body(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
                 "Product marked as in stock successfully",
@@ -148,11 +297,54 @@ public class ProductController {
                 null));
     }
 
+    @Operation(summary = "Adjust product stock", description = "Atomically adds the delta to the quantity in stock. Negative deltas that would leave the stock below 0 are rejected")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stock adjusted", content = @Content(examples = @ExampleObject(value = ApiExamples.STOCK_ADJUSTED_RESPONSE))),
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content(examples = @ExampleObject(value = ApiExamples.NOT_FOUND_RESPONSE))),
+            @ApiResponse(responseCode = "409", description = "Insufficient stock", content = @Content(examples = @ExampleObject(value = ApiExamples.INSUFFICIENT_STOCK_RESPONSE))),
+            @ApiResponse(responseCode = "412", description = "Version mismatch", content = @Content(examples = @ExampleObject(value = ApiExamples.PRECONDITION_FAILED_RESPONSE)))
+    })
+    @PostMapping("/{id}/stock")
+    private ResponseEntity<?> adjustStock(
+            @PathVariable String id,
+            @Parameter(description = "Units to add, negative to remove", example = "-3") @RequestParam int delta,
+            @Parameter(description = "ETags the product must still have one of") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Product product = productService.adjustStock(id, delta, ETagUtil.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtil.of(product.getVersion())).body(new ApiResponseDTO<>(
+                "Ok",
+                HttpStatus.OK.value(),
+                "Product stock adjusted successfully",
+                product,
+                null));
+    }
+
+    @Operation(summary = "Adjust stock in bulk", description = "Applies a list of stock movements in one pass. Each movement succeeds or fails on its own unless allOrNothing is set, in which case any failure discards the whole batch")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(examples = @ExampleObject(value = ApiExamples.STOCK_BATCH_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "Validation errors", content = @Content(examples = @ExampleObject(value = ApiExamples.VALIDATION_ERROR_RESPONSE)))
+    })
+    @PostMapping("/stock")
+    private ResponseEntity<?> adjustStockBatch(@Valid @RequestBody StockAdjustmentBatchDTO batch) {
+        List<StockAdjustmentResultDTO> results = productService.adjustStock(batch.getAdjustments(), batch.isAllOrNothing());
+        return ResponseEntity.ok(new ApiResponseDTO<>(
+                "Ok",
+                HttpStatus.OK.value(),
+                "Stock adjustments processed successfully",
+                results,
+                null));
+    }
+
     @Operation(summary = "Get all product categories", description = "Retrieves all unique product categories")
     @ApiResponse(responseCode = "200", description = "Categories retrieved", content = @Content(examples = @ExampleObject(value = ApiExamples.CATEGORIES_RESPONSE)))
     @GetMapping("/categories")
-    private ResponseEntity<?> findAllCategories() {
-        return ResponseEntity.ok(new ApiResponseDTO<>(
+    private ResponseEntity<?> findAllCategories(WebRequest request) {
+        // Read before the categories, so a concurrent write can only make the tag older than the content
+        String eTag = ETagUtil.of(productService.getCatalogVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
                 "Categories retrieved successfully",
@@ -163,12 +355,24 @@ public class ProductController {
     @Operation(summary = "Get inventory metrics", description = "Retrieves inventory metrics grouped by category")
     @ApiResponse(responseCode = "200", description = "Metrics retrieved", content = @Content(examples = @ExampleObject(value = ApiExamples.METRICS_RESPONSE)))
     @GetMapping("/metrics")
-    private ResponseEntity<?> getInventoryMetrics() {
-        return ResponseEntity.ok(new ApiResponseDTO<>(
+    private ResponseEntity<?> getInventoryMetrics(WebRequest request) {
+        String eTag = ETagUtil.of(productService.getCatalogVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(new ApiResponseDTO<>(
                 "Ok",
                 HttpStatus.OK.value(),
                 "Inventory metrics retrieved successfully",
                 productService.getInventoryMetrics(),
                 null));
     }
+
+    private static CursorPageDTO<Product> toCursorPage(Window<Product> window) {
+        String nextCursor = (window.hasNext() && !window.isEmpty())
+                ? ScrollPositionCodec.encode((KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPageDTO<>(window.getContent(), window.size(), window.hasNext(), nextCursor);
+    }
 }
@@ -18,7 +18,7 @@ public class InventoryMetricDTO {
     private String category;
 
     @Schema(description = "Total number of products in stock for this category", example = "150")
-    private int totalProductsInStock;
+    private long totalProductsInStock;
 
     @Schema(description = "Total monetary value of products in stock for this category", example = "15750.50")
     private BigDecimal totalValueInStock;
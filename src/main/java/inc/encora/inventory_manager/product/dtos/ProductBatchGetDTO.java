@@ -0,0 +1,24 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Products fetched in a single request")
+public class ProductBatchGetDTO {
+    @Schema(description = "Product identifiers, answered in the same order", example = "[\"550e8400-e29b-41d4-a716-446655440001\", \"unknown-id\"]")
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = 5000, message = "At most {max} ids are allowed per request")
+    private List<@NotBlank(message = "Ids must not be blank") String> ids;
+}
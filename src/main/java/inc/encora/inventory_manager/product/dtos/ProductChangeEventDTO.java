@@ -0,0 +1,25 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import inc.encora.inventory_manager.product.constants.ProductChangeType;
+import inc.encora.inventory_manager.product.models.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Change applied to a product, as pushed to event stream subscribers")
+public class ProductChangeEventDTO {
+    @Schema(description = "Kind of change", example = "stock_changed")
+    private ProductChangeType type;
+
+    @Schema(description = "Product identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+    private String productId;
+
+    @Schema(description = "Product after the change, absent when it was deleted")
+    private Product product;
+}
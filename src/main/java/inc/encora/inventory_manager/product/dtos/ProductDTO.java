@@ -1,5 +1,6 @@
 package inc.encora.inventory_manager.product.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -29,6 +30,7 @@ public class ProductDTO {
 
     @Schema(description = "Unit price of the product", example = "79.99", minimum = "0.1")
     @DecimalMin(value = "0.1", message = "Unit price cannot be 0 or negative")
+    @Digits(integer = 12, fraction = 6, message = "Unit price can have at most {integer} integer digits and {fraction} decimals")
     private BigDecimal unitPrice;
 
     @Schema(description = "Product expiration date", example = "2027-03-15", type = "string", format = "date")
@@ -38,4 +40,12 @@ public class ProductDTO {
     @Schema(description = "Quantity available in stock", example = "50", minimum = "0")
     @Min(value = 0, message = "Quantity in stock cannot be negative")
     private Integer quantityInStock;
+
+    // The repository stores dates as int epoch days, which four-digit years stay well inside
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "Expiration date must be before the year 10000")
+    public boolean isExpirationDateInSupportedRange() {
+        return expirationDate == null || expirationDate.getYear() < 10000;
+    }
 }
\ No newline at end of file
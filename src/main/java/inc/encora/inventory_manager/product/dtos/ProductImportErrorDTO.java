@@ -0,0 +1,22 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Errors found in a single row of a bulk import")
+public class ProductImportErrorDTO {
+    @Schema(description = "Position of the row in the imported body, starting at 1", example = "42")
+    private long row;
+
+    @Schema(description = "Error messages by field", example = "{\"unitPrice\": \"Unit price cannot be 0 or negative\"}")
+    private Map<String, String> errors;
+}
@@ -0,0 +1,34 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Outcome of a bulk product import")
+public class ProductImportResultDTO {
+    @Schema(description = "Number of rows read from the body", example = "10000")
+    private long totalRows;
+
+    @Schema(description = "Number of rows saved", example = "9998")
+    private long importedRows;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long failedRows;
+
+    @Schema(description = "Time spent importing, in milliseconds", example = "850")
+    private long elapsedMillis;
+
+    @Schema(description = "Rows processed per second", example = "11764")
+    private long rowsPerSecond;
+
+    @Schema(description = "Errors of the rejected rows, capped to keep the response bounded")
+    private List<ProductImportErrorDTO> errors;
+}
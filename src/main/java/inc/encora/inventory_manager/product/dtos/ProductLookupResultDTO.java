@@ -0,0 +1,24 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import inc.encora.inventory_manager.product.models.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Outcome of looking up a single product of a batch")
+public class ProductLookupResultDTO {
+    @Schema(description = "Requested product identifier", example = "550e8400-e29b-41d4-a716-446655440001")
+    private String id;
+
+    @Schema(description = "Whether the product exists", example = "true")
+    private boolean found;
+
+    @Schema(description = "The product, absent when it was not found")
+    private Product product;
+}
@@ -0,0 +1,27 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Stock movements applied in a single request")
+public class StockAdjustmentBatchDTO {
+    @Schema(description = "Movements, applied in order")
+    @NotEmpty(message = "At least one adjustment is required")
+    @Size(max = 1000, message = "At most {max} adjustments are allowed per batch")
+    private List<@Valid StockAdjustmentDTO> adjustments;
+
+    @Schema(description = "Apply every movement or none of them", example = "false")
+    private boolean allOrNothing;
+}
@@ -0,0 +1,27 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Stock movement of a single product")
+public class StockAdjustmentDTO {
+    @Schema(description = "Product identifier", example = "550e8400-e29b-41d4-a716-446655440001")
+    @NotBlank(message = "Product id is required")
+    private String productId;
+
+    @Schema(description = "Units to add, negative to remove", example = "-3")
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+
+    @Schema(description = "Version the product must have before the batch, skipped when absent", example = "3")
+    private Long expectedVersion;
+}
@@ -0,0 +1,27 @@
+package inc.encora.inventory_manager.product.dtos;
+
+import inc.encora.inventory_manager.product.constants.StockAdjustmentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Outcome of a single stock movement")
+public class StockAdjustmentResultDTO {
+    @Schema(description = "Product identifier", example = "550e8400-e29b-41d4-a716-446655440001")
+    private String productId;
+
+    @Schema(description = "Requested delta", example = "-3")
+    private int delta;
+
+    @Schema(description = "Outcome of the movement", example = "applied")
+    private StockAdjustmentStatus status;
+
+    @Schema(description = "Quantity in stock after the movement, or the unchanged quantity when it was rejected", example = "47")
+    private Integer quantityInStock;
+}
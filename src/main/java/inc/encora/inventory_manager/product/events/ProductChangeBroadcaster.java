@@ -0,0 +1,155 @@
+package inc.encora.inventory_manager.product.events;
+
+import inc.encora.inventory_manager.product.dtos.ProductChangeEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans product changes out to event stream subscribers. Publishing never blocks the writer: each
+// subscriber has a bounded buffer drained by its own virtual thread, and a subscriber whose buffer
+// fills up is dropped. Its stream is closed so the client reconnects and reloads what it missed.
+@Component
+public class ProductChangeBroadcaster {
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextEventId = new AtomicLong();
+    private final AtomicLong nextSubscriberId = new AtomicLong();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    interface EventSink {
+        void send(long id, ProductChangeEventDTO event) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    @Autowired
+    public ProductChangeBroadcaster(@Value("${inventory.events.buffer-size:256}") int bufferSize,
+                                    @Value("${inventory.events.heartbeat-ms:15000}") long heartbeatMillis,
+                                    @Value("${inventory.events.timeout-ms:1800000}") long timeoutMillis) {
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = register(new EmitterSink(emitter));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    Subscriber register(EventSink sink) {
+        Subscriber subscriber = new Subscriber(sink, new ArrayBlockingQueue<>(bufferSize));
+        subscriber.drainer = Thread.ofVirtual()
+                .name("product-events-" + nextSubscriberId.incrementAndGet())
+                .unstarted(subscriber::drain);
+        subscribers.add(subscriber);
+        subscriber.drainer.start();
+        return subscriber;
+    }
+
+    @EventListener
+    public void publish(ProductChangeEventDTO event) {
+        Event numbered = new Event(nextEventId.incrementAndGet(), event);
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.buffer.offer(numbered)) {
+                droppedSubscribers.incrementAndGet();
+                subscriber.close();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedSubscriberCount() {
+        return droppedSubscribers.get();
+    }
+
+    private record Event(long id, ProductChangeEventDTO payload) {
+    }
+
+    final class Subscriber {
+        private final EventSink sink;
+        private final BlockingQueue<Event> buffer;
+        private volatile boolean closed;
+        private Thread drainer;
+
+        private Subscriber(EventSink sink, BlockingQueue<Event> buffer) {
+            this.sink = sink;
+            this.buffer = buffer;
+        }
+
+        // Only flags the subscriber, so it is safe from the publishing thread even while a send is blocked.
+        // The drainer closes the sink once it notices.
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            drainer.interrupt();
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    Event event = buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    if (event == null) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(event.id(), event.payload());
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // The client went away or the subscriber was dropped, either way the stream ends here
+            } finally {
+                closed = true;
+                subscribers.remove(this);
+                buffer.clear();
+                // A pending interrupt must not disturb completing the response
+                Thread.interrupted();
+                sink.close();
+            }
+        }
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements EventSink {
+        @Override
+        public void send(long id, ProductChangeEventDTO event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(event.getType().getValue())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        // Also how a disconnected client is noticed while nothing changes
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package inc.encora.inventory_manager.product.metrics;
+
+import inc.encora.inventory_manager.product.events.ProductChangeBroadcaster;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductChangeStreamMetrics implements MeterBinder {
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+
+    public ProductChangeStreamMetrics(ProductChangeBroadcaster productChangeBroadcaster) {
+        this.productChangeBroadcaster = productChangeBroadcaster;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("inventory.events.subscribers", productChangeBroadcaster, ProductChangeBroadcaster::getSubscriberCount)
+                .description("Clients currently subscribed to the product change stream")
+                .register(registry);
+        FunctionCounter.builder("inventory.events.dropped.subscribers", productChangeBroadcaster, ProductChangeBroadcaster::getDroppedSubscriberCount)
+                .description("Subscribers disconnected because their event buffer filled up")
+                .register(registry);
+    }
+}
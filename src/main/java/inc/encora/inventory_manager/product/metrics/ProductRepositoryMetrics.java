@@ -0,0 +1,44 @@
+package inc.encora.inventory_manager.product.metrics;
+
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductRepositoryMetrics implements MeterBinder {
+    private final ProductRepository productRepository;
+
+    public ProductRepositoryMetrics(ProductRepository productRepository) {
+        this.productRepository = unproxied(productRepository);
+    }
+
+    // Gauges read the repository on every scrape, which LayerTimingAspect would otherwise record as
+    // repository latency
+    private static ProductRepository unproxied(ProductRepository productRepository) {
+        Object target = AopProxyUtils.getSingletonTarget(productRepository);
+        while (target instanceof ProductRepository repository) {
+            productRepository = repository;
+            target = AopProxyUtils.getSingletonTarget(repository);
+        }
+        return productRepository;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("inventory.repository.products", productRepository, ProductRepository::count)
+                .description("Products currently stored")
+                .register(registry);
+
+        for (String index : productRepository.findIndexSizes().keySet()) {
+            Gauge.builder("inventory.repository.index.entries", productRepository,
+                            repository -> repository.findIndexSizes().getOrDefault(index, 0))
+                    .description("Distinct keys held by a secondary index")
+                    .tag("index", index)
+                    .register(registry);
+        }
+    }
+}
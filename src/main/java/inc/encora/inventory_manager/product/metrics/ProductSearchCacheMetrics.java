@@ -0,0 +1,36 @@
+package inc.encora.inventory_manager.product.metrics;
+
+import inc.encora.inventory_manager.product.services.cache.ProductSearchCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductSearchCacheMetrics implements MeterBinder {
+    private final ProductSearchCache productSearchCache;
+
+    public ProductSearchCacheMetrics(ProductSearchCache productSearchCache) {
+        this.productSearchCache = productSearchCache;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("inventory.search.cache.requests", productSearchCache, cache -> cache.stats().hits())
+                .description("Search cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("inventory.search.cache.requests", productSearchCache, cache -> cache.stats().misses())
+                .description("Search cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("inventory.search.cache.evictions", productSearchCache, cache -> cache.stats().evictions())
+                .description("Search cache entries dropped to stay within the size bound")
+                .register(registry);
+        Gauge.builder("inventory.search.cache.entries", productSearchCache, cache -> cache.stats().size())
+                .description("Search cache entries currently held")
+                .register(registry);
+    }
+}
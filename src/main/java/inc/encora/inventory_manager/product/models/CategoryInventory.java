@@ -0,0 +1,6 @@
+package inc.encora.inventory_manager.product.models;
+
+import java.math.BigDecimal;
+
+public record CategoryInventory(String category, long productCount, long unitsInStock, BigDecimal valueInStock) {
+}
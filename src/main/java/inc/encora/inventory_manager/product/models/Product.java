@@ -13,7 +13,7 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Data
 @NoArgsConstructor
 @Schema(description = "Product entity representing an inventory item")
@@ -45,6 +45,9 @@ public class Product implements Serializable {
     @Builder.Default
     private LocalDate updatedAt = LocalDate.now();
 
+    @Schema(description = "Version of the product, incremented on every change and used as its ETag", example = "3")
+    private long version;
+
     @JsonIgnore
     public BigDecimal getProductValueInStock() {
         return unitPrice.multiply(new BigDecimal(quantityInStock));
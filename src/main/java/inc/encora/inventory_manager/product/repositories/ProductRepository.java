@@ -1,12 +1,22 @@
 package inc.encora.inventory_manager.product.repositories;
 
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
 import inc.encora.inventory_manager.product.models.Product;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 
 public interface ProductRepository extends CrudRepository<Product, String> {
@@ -15,4 +25,37 @@ public interface ProductRepository extends CrudRepository<Product, String> {
     Page<Product> findByNameOrCategoryOrQuantityInStock(
             Pageable pageable, String name, List<String> categories, AvailabilityStatus availability
     );
+
+    Window<Product> findAll(KeysetScrollPosition position, Sort sort, int limit);
+
+    Window<Product> findByNameOrCategoryOrQuantityInStock(
+            KeysetScrollPosition position, Sort sort, int limit, String name, List<String> categories, AvailabilityStatus availability
+    );
+
+    Stream<Product> streamByNameOrCategoryOrQuantityInStock(String name, List<String> categories, AvailabilityStatus availability);
+
+    Optional<Product> updateById(String id, Consumer<Product> updater);
+
+    boolean updateAllById(Collection<String> ids, Predicate<Map<String, Product>> updater);
+
+    // Deletes the product under its lock and returns it, or empty when there was nothing to delete, so
+    // of several concurrent deletes of the same id only one sees the product
+    Optional<Product> removeById(String id);
+
+    // Stores products exactly as they were recorded, versions included, when rebuilding the catalog
+    // from durable storage. The repository may keep the given instances, so callers must not reuse them.
+    void restoreAll(Iterable<Product> products);
+
+    // Returns once every write already recorded in the change log is visible to readers
+    void awaitRecordedWrites();
+
+    // Changes whenever any product is written, so it can tag responses derived from the whole catalog
+    long findGeneration();
+
+    // Entry count of each secondary index, keyed by index name, for monitoring
+    Map<String, Integer> findIndexSizes();
+
+    List<String> findAllCategories();
+
+    List<CategoryInventory> findInventoryByCategory();
 }
@@ -1,71 +1,432 @@
 package inc.encora.inventory_manager.product.repositories.impl;
 
-import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.exceptions.BadRequestException;
+import inc.encora.inventory_manager.common.utils.InMemoryComparatorUtil;
 import inc.encora.inventory_manager.common.utils.InMemoryRepositoryUtil;
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
 import inc.encora.inventory_manager.product.models.Product;
 import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.indexes.CategoryIndex;
+import inc.encora.inventory_manager.product.repositories.indexes.InventoryAggregates;
+import inc.encora.inventory_manager.product.repositories.indexes.NGramIndex;
+import inc.encora.inventory_manager.product.repositories.indexes.SortedPropertyIndex;
+import inc.encora.inventory_manager.product.repositories.storage.CategoryDictionary;
+import inc.encora.inventory_manager.product.repositories.storage.CompactProduct;
+import inc.encora.inventory_manager.product.repositories.storage.ProductId;
+import inc.encora.inventory_manager.product.repositories.wal.ProductChangeLog;
+import inc.encora.inventory_manager.product.repositories.wal.ProductLogEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
+@ConditionalOnProperty(name = "inventory.repository.type", havingValue = "local", matchIfMissing = true)
 public class LocalProductRepository implements ProductRepository {
-    private final Map<String, Product> products = new HashMap<>();
+    private static final List<String> SORTED_PROPERTIES = List.of(
+            "name", "category", "unitPrice", "expirationDate", "quantityInStock");
+    private static final Sort DEFAULT_SCROLL_SORT = Sort.by("name");
+    private static final String ID_KEY = "id";
+
+    // Stored products are immutable compact copies, so readers can iterate the map without locking
+    // while writers serialize per product on a lock stripe. They become Products only when returned.
+    private final Map<ProductId, CompactProduct> products = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = createLocks(Runtime.getRuntime().availableProcessors() * 4);
+    // Never cleared, so codes held by stored products and index entries stay valid
+    private final CategoryDictionary categories = new CategoryDictionary();
+    private final CategoryIndex categoryIndex = new CategoryIndex();
+    private final NGramIndex nameIndex = new NGramIndex();
+    private final Map<String, SortedPropertyIndex<CompactProduct>> sortedIndexes = createSortedIndexes(categories);
+    private final InventoryAggregates inventoryAggregates = new InventoryAggregates(categories);
+    // Starts from the clock so generations handed out by a previous run are never reused
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis() << 20);
+    private final ProductChangeLog changeLog;
 
-    // This is only for testing purposes in development
     public LocalProductRepository() {
-        products.putAll(ProductSeed.createProductsSeed(20));
+        this(ProductChangeLog.NONE);
+    }
+
+    // Every write is recorded in the change log before it is applied, and the writer waits for the
+    // log to make it durable only after releasing its locks
+    @Autowired
+    public LocalProductRepository(ProductChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    private static ReentrantLock[] createLocks(int minStripes) {
+        int stripes = Integer.highestOneBit(Math.max(minStripes - 1, 1)) << 1;
+        ReentrantLock[] stripeLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+        return stripeLocks;
+    }
+
+    private static Map<String, SortedPropertyIndex<CompactProduct>> createSortedIndexes(CategoryDictionary categories) {
+        Map<String, SortedPropertyIndex<CompactProduct>> indexes = new HashMap<>();
+        for (String property : SORTED_PROPERTIES) {
+            indexes.put(property, new SortedPropertyIndex<>(
+                    CompactProduct.propertyOrder(property, categories),
+                    Comparator.comparing(CompactProduct::getId)));
+        }
+        return indexes;
+    }
+
+    private int stripeOf(ProductId id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (locks.length - 1);
+    }
+
+    private ReentrantLock lockFor(ProductId id) {
+        return locks[stripeOf(id)];
+    }
+
+    private <R> R withLock(ProductId id, Supplier<R> action) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void withAllLocks(Runnable action) {
+        lockAll();
+        try {
+            action.run();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    // Package-private so ShardedProductRepository can hold several shards at once, always taking
+    // shards in order and stripes in order within a shard
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    // Returns the stripes taken, in the order they have to be passed to unlockStripes
+    int[] lockStripes(Collection<String> ids) {
+        int[] stripes = ids.stream().mapToInt(id -> stripeOf(ProductId.of(id))).distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        return stripes;
+    }
+
+    void unlockStripes(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    private static Product copyOf(Product product) {
+        return product.toBuilder().build();
+    }
+
+    private Product toProduct(CompactProduct product) {
+        return product.toProduct(categories);
+    }
+
+    // Must be called while holding the lock stripe of the product being replaced. Returns the change
+    // log position the write becomes durable at.
+    private long store(ProductId id, Product current) {
+        CompactProduct previous = products.get(id);
+        if (previous == null && current == null) {
+            // Deleting a missing product changes nothing, so there is nothing to log or invalidate
+            return 0;
+        }
+
+        CompactProduct stored = null;
+        if (current != null) {
+            stored = compact(previous, id, current, false);
+        }
+        long position = changeLog.append(List.of((current == null) ? ProductLogEntry.delete(id.toString()) : ProductLogEntry.save(current)));
+        apply(id, previous, stored);
+        return position;
+    }
+
+    // Stores several products with a single change log record, so replay restores all of them or none.
+    // Must be called while holding the lock stripes of every product in the batch.
+    private long storeAll(List<Product> batch) {
+        return storeAll(batch, false);
+    }
+
+    // Restored products keep the version they were recorded with instead of getting the next one
+    private long storeAll(List<Product> batch, boolean restoring) {
+        StagedBatch staged = stage(batch, restoring);
+        long position = changeLog.append(staged.entries());
+        apply(staged);
+        return position;
+    }
+
+    // Products versioned and converted to their stored form, with the log entries recording them
+    record StagedBatch(List<ProductLogEntry> entries, CompactProduct[] previous, CompactProduct[] stored) {
+    }
+
+    // Must be called while holding the lock stripes of every product in the batch, which stay held
+    // until the batch is logged and applied
+    StagedBatch stage(List<Product> batch, boolean restoring) {
+        Map<ProductId, CompactProduct> latest = new HashMap<>();
+        CompactProduct[] previous = new CompactProduct[batch.size()];
+        CompactProduct[] stored = new CompactProduct[batch.size()];
+        List<ProductLogEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Product current = batch.get(i);
+            ProductId id = ProductId.of(current.getId());
+            previous[i] = latest.containsKey(id) ? latest.get(id) : products.get(id);
+            stored[i] = compact(previous[i], id, current, restoring);
+            latest.put(id, stored[i]);
+            entries.add(ProductLogEntry.save(current));
+        }
+        return new StagedBatch(entries, previous, stored);
+    }
+
+    void apply(StagedBatch staged) {
+        for (int i = 0; i < staged.stored().length; i++) {
+            apply(staged.stored()[i].getId(), staged.previous()[i], staged.stored()[i]);
+        }
+    }
+
+    // Versions the product and builds its stored form before anything is logged, so a product that
+    // cannot be stored is rejected without a trace. Replacements reuse the stored id instance.
+    private CompactProduct compact(CompactProduct previous, ProductId id, Product current, boolean restoring) {
+        if (!restoring) {
+            current.setVersion((previous == null) ? 1 : previous.getVersion() + 1);
+        }
+        return CompactProduct.of((previous == null) ? id : previous.getId(), current, categories);
+    }
+
+    private void apply(ProductId id, CompactProduct previous, CompactProduct current) {
+        if (current == null) {
+            products.remove(id);
+        } else {
+            products.put(id, current);
+        }
+        generation.incrementAndGet();
+        reindex(id, previous, current);
+    }
+
+    private void reindex(ProductId id, CompactProduct previous, CompactProduct current) {
+        // The stored search keys already tell whether the normalized category or name changed
+        boolean sameCategory = previous != null && current != null
+                && categories.keyIdOf(previous.getCategory()) == categories.keyIdOf(current.getCategory());
+        if (!sameCategory) {
+            categoryIndex.remove((previous == null) ? null : categories.spellingOf(previous.getCategory()), id);
+            categoryIndex.add((current == null) ? null : categories.spellingOf(current.getCategory()), id);
+        }
+
+        boolean sameName = previous != null && current != null
+                && Objects.equals(previous.getSearchName(), current.getSearchName());
+        if (!sameName) {
+            nameIndex.remove((previous == null) ? null : previous.getName(), id);
+            nameIndex.add((current == null) ? null : current.getName(), id);
+        }
+
+        for (SortedPropertyIndex<CompactProduct> sortedIndex : sortedIndexes.values()) {
+            sortedIndex.update(previous, current);
+        }
+
+        inventoryAggregates.update(previous, current);
     }
 
     @Override
     @NonNull
     public <S extends Product> S save(@NonNull S entity) {
-        products.put(entity.getId(), entity);
+        Product stored = copyOf(entity);
+        ProductId id = ProductId.of(stored.getId());
+        long position = withLock(id, () -> store(id, stored));
+        changeLog.awaitDurable(position);
+        entity.setVersion(stored.getVersion());
         return entity;
     }
 
     @Override
     @NonNull
     public <S extends Product> Iterable<S> saveAll(Iterable<S> entities) {
-        for (Product entity : entities) {
-            products.put(entity.getId(), entity);
+        long position = 0;
+        for (List<Product> stripeEntities : groupByStripe(entities)) {
+            List<Product> stored = new ArrayList<>(stripeEntities.size());
+            for (Product entity : stripeEntities) {
+                stored.add(copyOf(entity));
+            }
+
+            position = Math.max(position, storeStripe(stored, false));
+            for (int i = 0; i < stored.size(); i++) {
+                stripeEntities.get(i).setVersion(stored.get(i).getVersion());
+            }
         }
+        changeLog.awaitDurable(position);
         return entities;
     }
 
+    // Converts the given instances without copying them first, since they come straight from durable storage
+    @Override
+    public void restoreAll(@NonNull Iterable<Product> restored) {
+        long position = 0;
+        for (List<Product> stripeProducts : groupByStripe(restored)) {
+            position = Math.max(position, storeStripe(stripeProducts, true));
+        }
+        changeLog.awaitDurable(position);
+    }
+
+    // Grouping by stripe takes each lock once per batch instead of once per product
+    private Collection<List<Product>> groupByStripe(Iterable<? extends Product> entities) {
+        Map<Integer, List<Product>> byStripe = new TreeMap<>();
+        for (Product entity : entities) {
+            byStripe.computeIfAbsent(stripeOf(ProductId.of(entity.getId())), stripe -> new ArrayList<>()).add(entity);
+        }
+        return byStripe.values();
+    }
+
+    private long storeStripe(List<Product> stripeProducts, boolean restoring) {
+        ReentrantLock lock = lockFor(ProductId.of(stripeProducts.getFirst().getId()));
+        lock.lock();
+        try {
+            return storeAll(stripeProducts, restoring);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @NonNull
+    public Optional<Product> updateById(@NonNull String id, @NonNull Consumer<Product> updater) {
+        ProductId productId = ProductId.of(id);
+        long[] position = new long[1];
+        Optional<Product> result = withLock(productId, () -> {
+            CompactProduct existing = products.get(productId);
+            if (existing == null) {
+                return Optional.empty();
+            }
+
+            Product updated = toProduct(existing);
+            updater.accept(updated);
+            position[0] = store(productId, updated);
+            return Optional.of(copyOf(updated));
+        });
+        changeLog.awaitDurable(position[0]);
+        return result;
+    }
+
+    // Runs the updater on working copies of the existing products while holding all of their lock
+    // stripes, taken in stripe order so concurrent batches cannot deadlock. Missing ids are left out
+    // of the map, and nothing is stored when the updater returns false or throws.
+    @Override
+    public boolean updateAllById(@NonNull Collection<String> ids, @NonNull Predicate<Map<String, Product>> updater) {
+        int[] stripes = lockStripes(ids);
+        long position = 0;
+        try {
+            Map<String, Product> originals = findOriginals(ids);
+            Map<String, Product> workingCopies = copiesOf(originals);
+            if (!updater.test(workingCopies)) {
+                return false;
+            }
+
+            List<Product> changed = findChanged(originals, workingCopies);
+            if (!changed.isEmpty()) {
+                position = storeAll(changed);
+            }
+        } finally {
+            unlockStripes(stripes);
+        }
+        changeLog.awaitDurable(position);
+        return true;
+    }
+
+    // Must be called while holding the lock stripes of the ids
+    Map<String, Product> findOriginals(Collection<String> ids) {
+        Map<String, Product> originals = new HashMap<>();
+        for (String id : ids) {
+            CompactProduct existing = products.get(ProductId.of(id));
+            if (existing != null) {
+                originals.put(id, toProduct(existing));
+            }
+        }
+        return originals;
+    }
+
+    static Map<String, Product> copiesOf(Map<String, Product> originals) {
+        Map<String, Product> copies = new HashMap<>();
+        originals.forEach((id, original) -> copies.put(id, copyOf(original)));
+        return copies;
+    }
+
+    // Products the updater left in the map and changed, detached from the map it may still hold
+    static List<Product> findChanged(Map<String, Product> originals, Map<String, Product> workingCopies) {
+        List<Product> changed = new ArrayList<>();
+        originals.forEach((id, original) -> {
+            Product updated = workingCopies.get(id);
+            if (updated != null && !updated.equals(original)) {
+                changed.add(copyOf(updated));
+            }
+        });
+        return changed;
+    }
+
     @Override
     @NonNull
     public Optional<Product> findById(@NonNull String s) {
-        return Optional.ofNullable(products.get(s));
+        return Optional.ofNullable(products.get(ProductId.of(s))).map(this::toProduct);
     }
 
     @Override
     public boolean existsById(@NonNull String s) {
-        return products.containsKey(s);
+        return products.containsKey(ProductId.of(s));
     }
 
     @Override
     @NonNull
     public Iterable<Product> findAll() {
-        return new ArrayList<>(products.values());
+        List<Product> allProducts = new ArrayList<>(products.size());
+        for (CompactProduct product : products.values()) {
+            allProducts.add(toProduct(product));
+        }
+        return allProducts;
     }
 
     @Override
     @NonNull
-    public Iterable<Product> findAllById(Iterable<String> strings) {
-        Map<String, Product> productsFiltered = new HashMap<>();
+    public List<Product> findAllById(Iterable<String> strings) {
+        // Keeps the requested order, repeated ids included, so callers can line the results up with their ids
+        List<Product> found = new ArrayList<>((strings instanceof Collection<?> ids) ? ids.size() : 16);
         for (String id : strings) {
-            Product product = products.get(id);
+            CompactProduct product = products.get(ProductId.of(id));
             if (product != null) {
-                productsFiltered.put(product.getId(), product);
+                found.add(toProduct(product));
             }
         }
 
-        return new ArrayList<>(productsFiltered.values());
+        return found;
     }
 
     @Override
@@ -75,66 +436,307 @@ public class LocalProductRepository implements ProductRepository {
 
     @Override
     public void deleteById(@NonNull String s) {
-        products.remove(s);
+        removeById(s);
+    }
+
+    @Override
+    @NonNull
+    public Optional<Product> removeById(@NonNull String id) {
+        ProductId productId = ProductId.of(id);
+        long[] position = new long[1];
+        Optional<Product> removed = withLock(productId, () -> {
+            CompactProduct existing = products.get(productId);
+            if (existing == null) {
+                return Optional.empty();
+            }
+
+            position[0] = store(productId, null);
+            return Optional.of(toProduct(existing));
+        });
+        changeLog.awaitDurable(position[0]);
+        return removed;
     }
 
     @Override
     public void delete(Product entity) {
-        products.remove(entity.getId());
+        deleteById(entity.getId());
     }
 
     @Override
     public void deleteAllById(Iterable<? extends String> strings) {
         for (String id : strings) {
-            products.remove(id);
+            deleteById(id);
         }
     }
 
     @Override
     public void deleteAll(Iterable<? extends Product> entities) {
         for (Product entity : entities) {
-            products.remove(entity.getId());
+            deleteById(entity.getId());
         }
     }
 
     @Override
     public void deleteAll() {
+        long[] position = new long[1];
+        withAllLocks(() -> {
+            position[0] = changeLog.append(List.of(ProductLogEntry.clear()));
+            clear();
+        });
+        changeLog.awaitDurable(position[0]);
+    }
+
+    // Must be called while holding every lock stripe, after the clear has been logged
+    void clear() {
         products.clear();
+        generation.incrementAndGet();
+        categoryIndex.clear();
+        nameIndex.clear();
+        sortedIndexes.values().forEach(SortedPropertyIndex::clear);
+        inventoryAggregates.clear();
     }
 
     @Override
     public Page<Product> findAll(Pageable pageable) {
-        List<Product> allProducts = products.values().stream().toList();
+        Sort.Order indexedOrder = findIndexedOrder(pageable.getSort());
+        if (indexedOrder != null) {
+            return walkSortedIndex(pageable, indexedOrder, product -> true, false);
+        }
+
+        // Sorts without an index compare Products, so every product is converted first
+        List<Product> allProducts = new ArrayList<>(products.size());
+        for (CompactProduct product : products.values()) {
+            allProducts.add(toProduct(product));
+        }
         return InMemoryRepositoryUtil.applyPaginationAndSorting(allProducts, pageable, Product.class);
     }
 
     @Override
     public Page<Product> findByNameOrCategoryOrQuantityInStock(Pageable pageable, String name, List<String> categories, AvailabilityStatus availability) {
-        List<String> loweredCaseCategories = (categories == null) ?
-                Collections.emptyList() :
-                categories.stream().map(String::toLowerCase).toList();
-
-        List<Product> filteredProducts = products
-                .values()
-                .stream()
-                .filter((product -> {
-                    boolean containsName = name == null || product.getName().toLowerCase().contains(name.toLowerCase());
-
-                    boolean containsCategories = loweredCaseCategories.isEmpty()
-                            || loweredCaseCategories.getFirst().equalsIgnoreCase("all")
-                            || loweredCaseCategories.contains(product.getCategory().toLowerCase());
-                    boolean isAvailableMatch;
-                    if (availability == null || availability == AvailabilityStatus.ALL) {
-                        isAvailableMatch = true;
-                    } else if (availability == AvailabilityStatus.IN_STOCK) {
-                        isAvailableMatch = product.getQuantityInStock() > 0;
-                    } else { // AvailabilityStatus.OUT_OF_STOCK
-                        isAvailableMatch = product.getQuantityInStock() <= 0;
-                    }
-
-                    return containsName && containsCategories && isAvailableMatch;
-                }))
-                .toList();
+        ProductSearchFilter filter = ProductSearchFilter.of(name, categories, availability, this.categories);
+        Collection<CompactProduct> candidates = findCandidates(filter);
+
+        Sort.Order indexedOrder = findIndexedOrder(pageable.getSort());
+        if (candidates == null && indexedOrder != null) {
+            return walkSortedIndex(pageable, indexedOrder, filter, true);
+        }
+
+        List<Product> filteredProducts = new ArrayList<>();
+        for (CompactProduct product : (candidates == null) ? products.values() : candidates) {
+            if (filter.test(product)) {
+                filteredProducts.add(toProduct(product));
+            }
+        }
         return InMemoryRepositoryUtil.applyPaginationAndSorting(filteredProducts, pageable, Product.class);
     }
+
+    @Override
+    public Window<Product> findAll(KeysetScrollPosition position, Sort sort, int limit) {
+        return scrollSortedIndex(position, sort, limit, product -> true);
+    }
+
+    @Override
+    public Window<Product> findByNameOrCategoryOrQuantityInStock(KeysetScrollPosition position, Sort sort, int limit, String name, List<String> categories, AvailabilityStatus availability) {
+        return scrollSortedIndex(position, sort, limit, ProductSearchFilter.of(name, categories, availability, this.categories));
+    }
+
+    // Lazily walks the live map, so memory stays constant however large the catalog is. Each product
+    // shows up at most once, as one of the versions it had while the stream was consumed.
+    @Override
+    public Stream<Product> streamByNameOrCategoryOrQuantityInStock(String name, List<String> categories, AvailabilityStatus availability) {
+        ProductSearchFilter filter = ProductSearchFilter.of(name, categories, availability, this.categories);
+        Set<ProductId> candidateIds = findCandidateIds(filter);
+
+        Stream<CompactProduct> candidates = (candidateIds == null)
+                ? products.values().stream()
+                : candidateIds.stream().map(products::get).filter(Objects::nonNull);
+        return candidates.filter(filter).map(this::toProduct);
+    }
+
+    // Every write appends to the change log and applies itself under the same lock stripe, so once each
+    // stripe has been free for a moment, everything appended before is visible
+    @Override
+    public void awaitRecordedWrites() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long findGeneration() {
+        return generation.get();
+    }
+
+    // Sorted indexes always hold one entry per product and skip lists count in linear time, so they are left out
+    @Override
+    public Map<String, Integer> findIndexSizes() {
+        return Map.of(
+                "category", categoryIndex.size(),
+                "name_trigram", nameIndex.size(),
+                "category_inventory", inventoryAggregates.size());
+    }
+
+    @Override
+    public List<String> findAllCategories() {
+        return categoryIndex.findAllCategories();
+    }
+
+    @Override
+    public List<CategoryInventory> findInventoryByCategory() {
+        return inventoryAggregates.findAll();
+    }
+
+    // Picks the smallest candidate set the indexes can offer, or null when they cannot narrow the
+    // search. Candidates are still verified against the full filter because index reads race with
+    // concurrent writers.
+    private Set<ProductId> findCandidateIds(ProductSearchFilter filter) {
+        Set<ProductId> candidateIds = filter.categoryKeys().isEmpty() ? null : categoryIndex.findProductIds(filter.categoryKeys());
+
+        if (filter.loweredCaseName() != null) {
+            Set<ProductId> nameCandidateIds = nameIndex.findCandidates(filter.loweredCaseName());
+            if (nameCandidateIds != null && (candidateIds == null || nameCandidateIds.size() < candidateIds.size())) {
+                candidateIds = nameCandidateIds;
+            }
+        }
+        return candidateIds;
+    }
+
+    private Collection<CompactProduct> findCandidates(ProductSearchFilter filter) {
+        Set<ProductId> candidateIds = findCandidateIds(filter);
+        if (candidateIds == null) {
+            return null;
+        }
+
+        List<CompactProduct> candidates = new ArrayList<>(candidateIds.size());
+        for (ProductId id : candidateIds) {
+            CompactProduct product = products.get(id);
+            if (product != null) {
+                candidates.add(product);
+            }
+        }
+        return candidates;
+    }
+
+    private static Sort.Order findIndexedOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !SORTED_PROPERTIES.contains(orders.getFirst().getProperty())) {
+            return null;
+        }
+        return orders.getFirst();
+    }
+
+    static Sort.Order findScrollOrder(Sort sort) {
+        Sort.Order order = findIndexedOrder(sort.isSorted() ? sort : DEFAULT_SCROLL_SORT);
+        if (order == null) {
+            throw new BadRequestException("Cursor pagination supports a single sort property among " + SORTED_PROPERTIES);
+        }
+        return order;
+    }
+
+    // Order of a sorted index walk: the property, then the id to keep it total
+    static Comparator<Product> indexOrder(Sort.Order order) {
+        Comparator<Product> ascending = InMemoryComparatorUtil.getPropertyComparator(Product.class, order.getProperty())
+                .thenComparing(Product::getId);
+        return order.isAscending() ? ascending : ascending.reversed();
+    }
+
+    // Order pages come back in, so pages of several repositories can be merged. Null when unsorted.
+    static Comparator<Product> pageOrder(Sort sort) {
+        Sort.Order indexedOrder = findIndexedOrder(sort);
+        return (indexedOrder != null) ? indexOrder(indexedOrder) : InMemoryComparatorUtil.getSortComparator(Product.class, sort);
+    }
+
+    // Walks the index in order and stops once the page is full, unless every match has to be counted
+    private Page<Product> walkSortedIndex(Pageable pageable, Sort.Order order, Predicate<CompactProduct> filter, boolean countAll) {
+        SortedPropertyIndex<CompactProduct> index = sortedIndexes.get(order.getProperty());
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+
+        List<Product> content = new ArrayList<>(pageSize);
+        long matches = 0;
+        for (CompactProduct entry : index.entries(order.getDirection())) {
+            if (!countAll && content.size() == pageSize) {
+                break;
+            }
+
+            // The entry may be outdated, so only the current version counts, and only at its current position
+            CompactProduct product = products.get(entry.getId());
+            if (product == null || !index.hasSameKey(entry, product) || !filter.test(product)) {
+                continue;
+            }
+
+            if (matches >= offset && content.size() < pageSize) {
+                content.add(toProduct(product));
+            }
+            matches++;
+        }
+
+        return new PageImpl<>(content, pageable, countAll ? matches : products.size());
+    }
+
+    // Seeks straight past the last returned key, so every window costs the same regardless of depth.
+    // Keys are the sort value plus the id, which keeps the order total and stable under concurrent writes.
+    private Window<Product> scrollSortedIndex(KeysetScrollPosition position, Sort sort, int limit, Predicate<CompactProduct> filter) {
+        Sort.Order order = findScrollOrder(sort);
+        SortedPropertyIndex<CompactProduct> index = sortedIndexes.get(order.getProperty());
+        NavigableSet<CompactProduct> entries = index.entries(order.getDirection());
+        if (!position.isInitial()) {
+            entries = entries.tailSet(toKeyProduct(order.getProperty(), position.getKeys()), false);
+        }
+
+        List<Product> content = new ArrayList<>(limit);
+        boolean hasNext = false;
+        for (CompactProduct entry : entries) {
+            CompactProduct product = products.get(entry.getId());
+            if (product == null || !index.hasSameKey(entry, product) || !filter.test(product)) {
+                continue;
+            }
+
+            if (content.size() == limit) {
+                hasNext = true;
+                break;
+            }
+            content.add(toProduct(product));
+        }
+
+        return Window.from(content, i -> toScrollPosition(order.getProperty(), content.get(i)), hasNext);
+    }
+
+    static KeysetScrollPosition toScrollPosition(String property, Product product) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(property, switch (property) {
+            case "name" -> product.getName();
+            case "category" -> product.getCategory();
+            case "unitPrice" -> product.getUnitPrice();
+            case "expirationDate" -> product.getExpirationDate();
+            default -> product.getQuantityInStock();
+        });
+        keys.put(ID_KEY, product.getId());
+        return ScrollPosition.forward(keys);
+    }
+
+    // Cursor keys may arrive as strings, so they are converted back to the property type
+    private CompactProduct toKeyProduct(String property, Map<String, ?> keys) {
+        if (keys.get(ID_KEY) == null || !keys.containsKey(property)) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+
+        Object value = keys.get(property);
+        String text = (value == null) ? null : value.toString();
+        Product.ProductBuilder key = Product.builder();
+        try {
+            switch (property) {
+                case "name" -> key.name(text);
+                case "category" -> key.category(text);
+                case "unitPrice" -> key.unitPrice((text == null) ? null : new BigDecimal(text));
+                case "expirationDate" -> key.expirationDate((text == null) ? null : LocalDate.parse(text));
+                default -> key.quantityInStock((text == null) ? null : Integer.valueOf(text));
+            }
+            return CompactProduct.sortKey(property, ProductId.of(keys.get(ID_KEY).toString()), key.build(), categories);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Covers malformed numbers as well as values too large to store
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+    }
 }
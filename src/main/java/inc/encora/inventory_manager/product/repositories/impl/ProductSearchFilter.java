@@ -0,0 +1,74 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.repositories.indexes.CategoryIndex;
+import inc.encora.inventory_manager.product.repositories.indexes.NGramIndex;
+import inc.encora.inventory_manager.product.repositories.storage.CategoryDictionary;
+import inc.encora.inventory_manager.product.repositories.storage.CompactProduct;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Search parameters normalized once per query. An empty category set means "no category filter",
+// which is also what a leading "all" requests. Products are matched on their stored search name and
+// category code, so testing a product allocates nothing.
+public record ProductSearchFilter(String loweredCaseName, Set<String> categoryKeys, BitSet categoryKeyIds,
+                                  AvailabilityStatus availability, CategoryDictionary dictionary)
+        implements Predicate<CompactProduct> {
+
+    public static ProductSearchFilter of(String name, List<String> categories, AvailabilityStatus availability,
+                                         CategoryDictionary dictionary) {
+        Set<String> categoryKeys = normalizeCategories(categories);
+
+        // Categories no product has been stored with yet get no bit, so they match nothing
+        BitSet categoryKeyIds = new BitSet();
+        for (String categoryKey : categoryKeys) {
+            int keyId = dictionary.findKeyId(categoryKey);
+            if (keyId != CategoryDictionary.NO_CATEGORY) {
+                categoryKeyIds.set(keyId);
+            }
+        }
+
+        return new ProductSearchFilter(
+                (name == null) ? null : NGramIndex.normalize(name),
+                categoryKeys,
+                categoryKeyIds,
+                availability,
+                dictionary);
+    }
+
+    private static Set<String> normalizeCategories(List<String> categories) {
+        if (categories == null || categories.isEmpty() || categories.getFirst().equalsIgnoreCase("all")) {
+            return Collections.emptySet();
+        }
+
+        Set<String> categoryKeys = new HashSet<>();
+        for (String category : categories) {
+            categoryKeys.add(CategoryIndex.normalize(category));
+        }
+        return categoryKeys;
+    }
+
+    @Override
+    public boolean test(CompactProduct product) {
+        boolean containsName = loweredCaseName == null
+                || (product.getSearchName() != null && product.getSearchName().contains(loweredCaseName));
+
+        boolean containsCategories = categoryKeys.isEmpty()
+                || (product.getCategory() != CategoryDictionary.NO_CATEGORY && categoryKeyIds.get(dictionary.keyIdOf(product.getCategory())));
+        boolean isAvailableMatch;
+        if (availability == null || availability == AvailabilityStatus.ALL) {
+            isAvailableMatch = true;
+        } else if (availability == AvailabilityStatus.IN_STOCK) {
+            isAvailableMatch = product.hasQuantityInStock() && product.getQuantityInStock() > 0;
+        } else { // AvailabilityStatus.OUT_OF_STOCK
+            isAvailableMatch = product.hasQuantityInStock() && product.getQuantityInStock() <= 0;
+        }
+
+        return containsName && containsCategories && isAvailableMatch;
+    }
+}
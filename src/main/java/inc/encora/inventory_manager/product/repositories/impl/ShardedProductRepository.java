@@ -0,0 +1,422 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.indexes.CategoryIndex;
+import inc.encora.inventory_manager.product.repositories.wal.ProductChangeLog;
+import inc.encora.inventory_manager.product.repositories.wal.ProductLogEntry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Splits the catalog by id hash over independent LocalProductRepository shards. Single-product
+// operations go to the owning shard, while scans run on every shard in parallel and their sorted
+// pages are merged. Hashing ids rather than categories keeps shards even under skewed categories
+// and means a product never has to move between shards.
+@Repository
+@ConditionalOnProperty(name = "inventory.repository.type", havingValue = "sharded")
+public class ShardedProductRepository implements ProductRepository, DisposableBean {
+    private final List<LocalProductRepository> shards;
+    private final ForkJoinPool pool;
+    private final ProductChangeLog changeLog;
+
+    @Autowired
+    public ShardedProductRepository(@Value("${inventory.repository.shards:8}") int shardCount,
+                                    @Value("${inventory.repository.parallelism:0}") int parallelism,
+                                    ProductChangeLog changeLog) {
+        // Shards share the change log, whose records name products by id and replay through this repository
+        List<LocalProductRepository> localShards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            localShards.add(new LocalProductRepository(changeLog));
+        }
+        this.shards = List.copyOf(localShards);
+        this.changeLog = changeLog;
+        this.pool = new ForkJoinPool((parallelism > 0) ? parallelism : Math.min(shardCount, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private int shardOf(String id) {
+        int hash = id.hashCode() * 0x9E3779B9;
+        // The multiplication carries every input bit into the high bits, and scaling them by the shard
+        // count maps any count, not only powers of two, without a division
+        return (int) (((hash & 0xFFFFFFFFL) * shards.size()) >>> 32);
+    }
+
+    private LocalProductRepository shardFor(String id) {
+        return shards.get(shardOf(id));
+    }
+
+    // Runs the task on every shard in parallel and returns the results in shard order
+    private <R> List<R> scatter(Function<LocalProductRepository, R> task) {
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(shards.size());
+        for (LocalProductRepository shard : shards) {
+            tasks.add(pool.submit(() -> task.apply(shard)));
+        }
+
+        List<R> results = new ArrayList<>(shards.size());
+        for (ForkJoinTask<R> shardTask : tasks) {
+            results.add(shardTask.join());
+        }
+        return results;
+    }
+
+    @Override
+    @NonNull
+    public <S extends Product> S save(@NonNull S entity) {
+        return shardFor(entity.getId()).save(entity);
+    }
+
+    @Override
+    @NonNull
+    public <S extends Product> Iterable<S> saveAll(Iterable<S> entities) {
+        Map<LocalProductRepository, List<S>> byShard = new HashMap<>();
+        for (S entity : entities) {
+            byShard.computeIfAbsent(shardFor(entity.getId()), shard -> new ArrayList<>()).add(entity);
+        }
+
+        scatter(shard -> shard.saveAll(byShard.getOrDefault(shard, List.of())));
+        return entities;
+    }
+
+    @Override
+    public void restoreAll(@NonNull Iterable<Product> products) {
+        Map<LocalProductRepository, List<Product>> byShard = new HashMap<>();
+        for (Product product : products) {
+            byShard.computeIfAbsent(shardFor(product.getId()), shard -> new ArrayList<>()).add(product);
+        }
+
+        scatter(shard -> {
+            shard.restoreAll(byShard.getOrDefault(shard, List.of()));
+            return null;
+        });
+    }
+
+    @Override
+    public void awaitRecordedWrites() {
+        shards.forEach(LocalProductRepository::awaitRecordedWrites);
+    }
+
+    @Override
+    @NonNull
+    public Optional<Product> updateById(@NonNull String id, @NonNull Consumer<Product> updater) {
+        return shardFor(id).updateById(id, updater);
+    }
+
+    // Takes the lock stripes of the whole batch, in shard order and stripe order within each shard, so
+    // the updater sees every product of the batch at once and concurrent batches cannot deadlock. The
+    // changes of every shard go to the change log as a single record, so replay restores the whole
+    // batch or none of it, and the locks are released before waiting for it to be durable.
+    @Override
+    public boolean updateAllById(@NonNull Collection<String> ids, @NonNull Predicate<Map<String, Product>> updater) {
+        SortedMap<Integer, List<String>> idsByShard = new TreeMap<>();
+        for (String id : ids) {
+            idsByShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+
+        List<LocalProductRepository> locked = new ArrayList<>(idsByShard.size());
+        List<int[]> lockedStripes = new ArrayList<>(idsByShard.size());
+        long position = 0;
+        try {
+            Map<String, Product> originals = new HashMap<>();
+            for (Map.Entry<Integer, List<String>> group : idsByShard.entrySet()) {
+                LocalProductRepository shard = shards.get(group.getKey());
+                lockedStripes.add(shard.lockStripes(group.getValue()));
+                locked.add(shard);
+                originals.putAll(shard.findOriginals(group.getValue()));
+            }
+
+            Map<String, Product> workingCopies = LocalProductRepository.copiesOf(originals);
+            if (!updater.test(workingCopies)) {
+                return false;
+            }
+
+            Map<LocalProductRepository, List<Product>> changedByShard = new HashMap<>();
+            for (Product product : LocalProductRepository.findChanged(originals, workingCopies)) {
+                changedByShard.computeIfAbsent(shardFor(product.getId()), shard -> new ArrayList<>()).add(product);
+            }
+            if (!changedByShard.isEmpty()) {
+                Map<LocalProductRepository, LocalProductRepository.StagedBatch> staged = new LinkedHashMap<>();
+                List<ProductLogEntry> entries = new ArrayList<>();
+                changedByShard.forEach((shard, changed) -> {
+                    LocalProductRepository.StagedBatch shardBatch = shard.stage(changed, false);
+                    staged.put(shard, shardBatch);
+                    entries.addAll(shardBatch.entries());
+                });
+
+                position = changeLog.append(entries);
+                staged.forEach(LocalProductRepository::apply);
+            }
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).unlockStripes(lockedStripes.get(i));
+            }
+        }
+        changeLog.awaitDurable(position);
+        return true;
+    }
+
+    @Override
+    @NonNull
+    public Optional<Product> findById(@NonNull String s) {
+        return shardFor(s).findById(s);
+    }
+
+    @Override
+    public boolean existsById(@NonNull String s) {
+        return shardFor(s).existsById(s);
+    }
+
+    @Override
+    @NonNull
+    public Iterable<Product> findAll() {
+        List<Product> allProducts = new ArrayList<>();
+        for (Iterable<Product> shardProducts : scatter(LocalProductRepository::findAll)) {
+            shardProducts.forEach(allProducts::add);
+        }
+        return allProducts;
+    }
+
+    @Override
+    @NonNull
+    public List<Product> findAllById(Iterable<String> strings) {
+        List<Product> found = new ArrayList<>((strings instanceof Collection<?> ids) ? ids.size() : 16);
+        for (String id : strings) {
+            shardFor(id).findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (LocalProductRepository shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    @Override
+    public void deleteById(@NonNull String s) {
+        shardFor(s).deleteById(s);
+    }
+
+    @Override
+    @NonNull
+    public Optional<Product> removeById(@NonNull String id) {
+        return shardFor(id).removeById(id);
+    }
+
+    @Override
+    public void delete(Product entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> strings) {
+        for (String id : strings) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Product> entities) {
+        for (Product entity : entities) {
+            deleteById(entity.getId());
+        }
+    }
+
+    // Holds every shard at once and logs a single clear, which replay applies to the whole repository.
+    // A clear per shard would let a write to an already cleared shard be wiped by a later shard's clear.
+    @Override
+    public void deleteAll() {
+        long position;
+        int lockedShards = 0;
+        try {
+            for (LocalProductRepository shard : shards) {
+                shard.lockAll();
+                lockedShards++;
+            }
+            position = changeLog.append(List.of(ProductLogEntry.clear()));
+            shards.forEach(LocalProductRepository::clear);
+        } finally {
+            for (int i = lockedShards - 1; i >= 0; i--) {
+                shards.get(i).unlockAll();
+            }
+        }
+        changeLog.awaitDurable(position);
+    }
+
+    @Override
+    public Page<Product> findAll(Pageable pageable) {
+        Pageable shardPage = toShardPage(pageable);
+        return mergePages(scatter(shard -> shard.findAll(shardPage)), pageable);
+    }
+
+    @Override
+    public Page<Product> findByNameOrCategoryOrQuantityInStock(Pageable pageable, String name, List<String> categories, AvailabilityStatus availability) {
+        Pageable shardPage = toShardPage(pageable);
+        return mergePages(scatter(shard -> shard.findByNameOrCategoryOrQuantityInStock(shardPage, name, categories, availability)), pageable);
+    }
+
+    @Override
+    public Window<Product> findAll(KeysetScrollPosition position, Sort sort, int limit) {
+        Sort.Order order = LocalProductRepository.findScrollOrder(sort);
+        return mergeWindows(scatter(shard -> shard.findAll(position, sort, limit)), order, limit);
+    }
+
+    @Override
+    public Window<Product> findByNameOrCategoryOrQuantityInStock(KeysetScrollPosition position, Sort sort, int limit, String name, List<String> categories, AvailabilityStatus availability) {
+        Sort.Order order = LocalProductRepository.findScrollOrder(sort);
+        return mergeWindows(scatter(shard -> shard.findByNameOrCategoryOrQuantityInStock(position, sort, limit, name, categories, availability)), order, limit);
+    }
+
+    // Shards are streamed one after another, so memory stays constant like on a single repository
+    @Override
+    public Stream<Product> streamByNameOrCategoryOrQuantityInStock(String name, List<String> categories, AvailabilityStatus availability) {
+        return shards.stream().flatMap(shard -> shard.streamByNameOrCategoryOrQuantityInStock(name, categories, availability));
+    }
+
+    // Shard generations only grow, so their sum changes on every write even once it wraps around
+    @Override
+    public long findGeneration() {
+        long generation = 0;
+        for (LocalProductRepository shard : shards) {
+            generation += shard.findGeneration();
+        }
+        return generation;
+    }
+
+    @Override
+    public Map<String, Integer> findIndexSizes() {
+        Map<String, Integer> sizes = new HashMap<>();
+        for (LocalProductRepository shard : shards) {
+            shard.findIndexSizes().forEach((index, size) -> sizes.merge(index, size, Integer::sum));
+        }
+        return sizes;
+    }
+
+    @Override
+    public List<String> findAllCategories() {
+        Map<String, String> categories = new LinkedHashMap<>();
+        for (LocalProductRepository shard : shards) {
+            for (String category : shard.findAllCategories()) {
+                categories.putIfAbsent(CategoryIndex.normalize(category), category);
+            }
+        }
+        return List.copyOf(categories.values());
+    }
+
+    @Override
+    public List<CategoryInventory> findInventoryByCategory() {
+        Map<String, CategoryInventory> totals = new LinkedHashMap<>();
+        for (List<CategoryInventory> shardInventory : scatter(LocalProductRepository::findInventoryByCategory)) {
+            for (CategoryInventory inventory : shardInventory) {
+                totals.merge(CategoryIndex.normalize(inventory.category()), inventory, (total, more) -> new CategoryInventory(
+                        total.category(),
+                        total.productCount() + more.productCount(),
+                        total.unitsInStock() + more.unitsInStock(),
+                        total.valueInStock().add(more.valueInStock())));
+            }
+        }
+        return List.copyOf(totals.values());
+    }
+
+    // Any product of the requested page may live on any shard, so each shard has to return its own
+    // top offset + size products. Deep pages therefore cost more here than on a single repository.
+    private static Pageable toShardPage(Pageable pageable) {
+        long topK = Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        return PageRequest.of(0, (int) topK, pageable.getSort());
+    }
+
+    private static Page<Product> mergePages(List<Page<Product>> shardPages, Pageable pageable) {
+        long total = 0;
+        List<List<Product>> sortedRuns = new ArrayList<>(shardPages.size());
+        for (Page<Product> shardPage : shardPages) {
+            total += shardPage.getTotalElements();
+            sortedRuns.add(shardPage.getContent());
+        }
+
+        List<Product> merged = merge(sortedRuns, LocalProductRepository.pageOrder(pageable.getSort()),
+                pageable.getOffset() + pageable.getPageSize());
+        int start = (int) Math.min(pageable.getOffset(), merged.size());
+        return new PageImpl<>(merged.subList(start, merged.size()), pageable, total);
+    }
+
+    private static Window<Product> mergeWindows(List<Window<Product>> shardWindows, Sort.Order order, int limit) {
+        boolean hasNext = false;
+        List<List<Product>> sortedRuns = new ArrayList<>(shardWindows.size());
+        for (Window<Product> shardWindow : shardWindows) {
+            hasNext |= shardWindow.hasNext();
+            sortedRuns.add(shardWindow.getContent());
+        }
+
+        List<Product> merged = merge(sortedRuns, LocalProductRepository.indexOrder(order), limit + 1L);
+        if (merged.size() > limit) {
+            hasNext = true;
+            merged = merged.subList(0, limit);
+        }
+
+        List<Product> content = merged;
+        return Window.from(content, i -> LocalProductRepository.toScrollPosition(order.getProperty(), content.get(i)), hasNext);
+    }
+
+    // K-way merge of runs sorted by the given order, stopping after limit products. Unsorted runs are
+    // simply concatenated.
+    private static List<Product> merge(List<List<Product>> sortedRuns, Comparator<Product> order, long limit) {
+        List<Product> merged = new ArrayList<>();
+        if (order == null) {
+            for (List<Product> run : sortedRuns) {
+                for (Product product : run) {
+                    if (merged.size() >= limit) {
+                        return merged;
+                    }
+                    merged.add(product);
+                }
+            }
+            return merged;
+        }
+
+        // Heads are {run, position} pairs ordered by the product they point at
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(sortedRuns.size(), 1),
+                (a, b) -> order.compare(sortedRuns.get(a[0]).get(a[1]), sortedRuns.get(b[0]).get(b[1])));
+        for (int run = 0; run < sortedRuns.size(); run++) {
+            if (!sortedRuns.get(run).isEmpty()) {
+                heads.add(new int[]{run, 0});
+            }
+        }
+
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<Product> run = sortedRuns.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
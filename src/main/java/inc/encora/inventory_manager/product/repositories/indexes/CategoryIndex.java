@@ -0,0 +1,78 @@
+package inc.encora.inventory_manager.product.repositories.indexes;
+
+import inc.encora.inventory_manager.product.repositories.storage.ProductId;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CategoryIndex {
+    private final Map<String, CategoryEntry> entries = new ConcurrentHashMap<>();
+
+    // The first spelling seen for a category is the one reported back to clients
+    private record CategoryEntry(String name, Set<ProductId> productIds) {
+    }
+
+    public static String normalize(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    public void add(String category, ProductId productId) {
+        if (category == null) {
+            return;
+        }
+
+        entries.compute(normalize(category), (key, entry) -> {
+            CategoryEntry categoryEntry = (entry == null)
+                    ? new CategoryEntry(category, ConcurrentHashMap.newKeySet())
+                    : entry;
+            categoryEntry.productIds().add(productId);
+            return categoryEntry;
+        });
+    }
+
+    public void remove(String category, ProductId productId) {
+        if (category == null) {
+            return;
+        }
+
+        entries.computeIfPresent(normalize(category), (key, entry) -> {
+            entry.productIds().remove(productId);
+            return entry.productIds().isEmpty() ? null : entry;
+        });
+    }
+
+    public Set<ProductId> findProductIds(String normalizedCategory) {
+        CategoryEntry entry = entries.get(normalizedCategory);
+        return (entry == null) ? Collections.emptySet() : Collections.unmodifiableSet(entry.productIds());
+    }
+
+    public Set<ProductId> findProductIds(Set<String> normalizedCategories) {
+        if (normalizedCategories.size() == 1) {
+            return findProductIds(normalizedCategories.iterator().next());
+        }
+
+        // A product moving between two of the requested categories could show up in both sets
+        Set<ProductId> productIds = new HashSet<>();
+        for (String normalizedCategory : normalizedCategories) {
+            productIds.addAll(findProductIds(normalizedCategory));
+        }
+        return productIds;
+    }
+
+    public List<String> findAllCategories() {
+        return entries.values().stream().map(CategoryEntry::name).toList();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
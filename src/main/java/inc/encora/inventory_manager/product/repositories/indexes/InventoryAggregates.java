@@ -0,0 +1,79 @@
+package inc.encora.inventory_manager.product.repositories.indexes;
+
+import inc.encora.inventory_manager.product.models.CategoryInventory;
+import inc.encora.inventory_manager.product.repositories.storage.CategoryDictionary;
+import inc.encora.inventory_manager.product.repositories.storage.CompactProduct;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Running per-category totals. Each category is updated atomically, so a category's totals always
+// match the products it holds even while writers race on other categories.
+public class InventoryAggregates {
+    private final Map<String, CategoryInventory> totals = new ConcurrentHashMap<>();
+    private final CategoryDictionary categories;
+
+    public InventoryAggregates(CategoryDictionary categories) {
+        this.categories = categories;
+    }
+
+    public void update(CompactProduct previous, CompactProduct current) {
+        if (previous != null && current != null && sameContribution(previous, current)) {
+            return;
+        }
+
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (current != null) {
+            apply(current, 1);
+        }
+    }
+
+    private boolean sameContribution(CompactProduct previous, CompactProduct current) {
+        return previous.getCategory() != CategoryDictionary.NO_CATEGORY
+                && categories.keyIdOf(previous.getCategory()) == categories.keyIdOf(current.getCategory())
+                && previous.getQuantityInStock() == current.getQuantityInStock()
+                && previous.hasSameUnitPrice(current);
+    }
+
+    private void apply(CompactProduct product, int sign) {
+        if (product.getCategory() == CategoryDictionary.NO_CATEGORY) {
+            return;
+        }
+
+        long units = product.getQuantityInStock();
+        BigDecimal price = product.getUnitPrice();
+        BigDecimal value = (price == null) ? BigDecimal.ZERO : price.multiply(BigDecimal.valueOf(units));
+
+        totals.compute(categories.keyOf(product.getCategory()), (key, inventory) -> {
+            CategoryInventory base = (inventory == null)
+                    ? new CategoryInventory(categories.spellingOf(product.getCategory()), 0, 0, BigDecimal.ZERO)
+                    : inventory;
+            long productCount = base.productCount() + sign;
+            if (productCount <= 0) {
+                return null;
+            }
+
+            return new CategoryInventory(
+                    base.category(),
+                    productCount,
+                    base.unitsInStock() + sign * units,
+                    (sign > 0) ? base.valueInStock().add(value) : base.valueInStock().subtract(value));
+        });
+    }
+
+    public List<CategoryInventory> findAll() {
+        return List.copyOf(totals.values());
+    }
+
+    public int size() {
+        return totals.size();
+    }
+
+    public void clear() {
+        totals.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package inc.encora.inventory_manager.product.repositories.indexes;
+
+import inc.encora.inventory_manager.product.repositories.storage.ProductId;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class NGramIndex {
+    public static final int GRAM_SIZE = 3;
+
+    // Each trigram is packed into a long (three 16-bit chars) to avoid a String per gram
+    private final Map<Long, Set<ProductId>> postings = new ConcurrentHashMap<>();
+
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static Set<Long> gramsOf(String normalizedText) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalizedText.length(); i++) {
+            grams.add(gramAt(normalizedText, i));
+        }
+        return grams;
+    }
+
+    public void add(String text, ProductId id) {
+        if (text == null) {
+            return;
+        }
+
+        for (Long gram : gramsOf(normalize(text))) {
+            postings.compute(gram, (key, ids) -> {
+                Set<ProductId> gramIds = (ids == null) ? ConcurrentHashMap.newKeySet() : ids;
+                gramIds.add(id);
+                return gramIds;
+            });
+        }
+    }
+
+    public void remove(String text, ProductId id) {
+        if (text == null) {
+            return;
+        }
+
+        for (Long gram : gramsOf(normalize(text))) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    // Returns null when the query is too short to be narrowed down by the index. The returned ids
+    // are only candidates: callers still have to verify the substring match.
+    public Set<ProductId> findCandidates(String normalizedQuery) {
+        if (normalizedQuery.length() < GRAM_SIZE) {
+            return null;
+        }
+
+        List<Set<ProductId>> gramPostings = new ArrayList<>();
+        for (Long gram : gramsOf(normalizedQuery)) {
+            Set<ProductId> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            gramPostings.add(ids);
+        }
+        gramPostings.sort(Comparator.comparingInt(Set::size));
+
+        Set<ProductId> candidates = new HashSet<>();
+        List<Set<ProductId>> others = gramPostings.subList(1, gramPostings.size());
+        for (ProductId id : gramPostings.getFirst()) {
+            if (containedInAll(id, others)) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean containedInAll(ProductId id, List<Set<ProductId>> sets) {
+        for (Set<ProductId> set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return postings.size();
+    }
+
+    public void clear() {
+        postings.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package inc.encora.inventory_manager.product.repositories.indexes;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Entries act as sort keys only: an entry is left in place while its property value is unchanged,
+// so callers must resolve the current version of an entry before returning it.
+public class SortedPropertyIndex<T> {
+    private final Comparator<T> propertyOrder;
+    private final ConcurrentSkipListSet<T> entries;
+
+    public SortedPropertyIndex(Comparator<T> propertyOrder, Comparator<T> tieBreaker) {
+        this.propertyOrder = propertyOrder;
+        this.entries = new ConcurrentSkipListSet<>(propertyOrder.thenComparing(tieBreaker));
+    }
+
+    public void update(T previous, T current) {
+        if (previous != null && current != null && hasSameKey(previous, current)) {
+            return;
+        }
+
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        if (current != null) {
+            entries.add(current);
+        }
+    }
+
+    public boolean hasSameKey(T entry, T current) {
+        return propertyOrder.compare(entry, current) == 0;
+    }
+
+    public NavigableSet<T> entries(Sort.Direction direction) {
+        return direction.isAscending() ? entries : entries.descendingSet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,78 @@
+package inc.encora.inventory_manager.product.repositories.storage;
+
+import inc.encora.inventory_manager.product.repositories.indexes.CategoryIndex;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Gives every category spelling a small code, so stored products hold an int instead of a string.
+// Spellings that only differ in case share a key id, which is what category filters match on. Codes
+// and key ids are never reused, so a code read at any time resolves to the same spelling forever.
+public class CategoryDictionary {
+    public static final int NO_CATEGORY = -1;
+
+    private record Key(String key, int id) {
+    }
+
+    // Spellings of the same key share its Key, so each key string is held once
+    private record Entry(String spelling, Key key) {
+    }
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final Map<String, Key> keys = new ConcurrentHashMap<>();
+    // Reassigned after every append, so a reader holding a code always sees its entry
+    private volatile Entry[] entries = new Entry[16];
+    private int size;
+
+    public int codeOf(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+
+        Integer code = codes.get(category);
+        return (code != null) ? code : append(category);
+    }
+
+    private synchronized int append(String category) {
+        Integer code = codes.get(category);
+        if (code != null) {
+            return code;
+        }
+
+        String normalized = CategoryIndex.normalize(category);
+        Key key = keys.get(normalized);
+        if (key == null) {
+            key = new Key(normalized, keys.size());
+            keys.put(normalized, key);
+        }
+
+        Entry[] grown = (size == entries.length) ? Arrays.copyOf(entries, size * 2) : entries;
+        grown[size] = new Entry(category, key);
+        entries = grown;
+        codes.put(category, size);
+        return size++;
+    }
+
+    public String spellingOf(int code) {
+        return (code == NO_CATEGORY) ? null : entries[code].spelling();
+    }
+
+    public String keyOf(int code) {
+        return (code == NO_CATEGORY) ? null : entries[code].key().key();
+    }
+
+    public int keyIdOf(int code) {
+        return (code == NO_CATEGORY) ? NO_CATEGORY : entries[code].key().id();
+    }
+
+    // Categories no product has been stored with get no key id
+    public int findKeyId(String normalizedCategory) {
+        Key key = keys.get(normalizedCategory);
+        return (key == null) ? NO_CATEGORY : key.id();
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
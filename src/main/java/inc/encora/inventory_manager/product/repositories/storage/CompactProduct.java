@@ -0,0 +1,221 @@
+package inc.encora.inventory_manager.product.repositories.storage;
+
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.indexes.NGramIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// The repository's stored form of a product: primitives instead of boxed and object fields, the id
+// as 128 bits and the category as a dictionary code. Prices keep their unscaled digits and scale, so
+// a product converts back to exactly the Product it was built from. Instances are immutable.
+public class CompactProduct {
+    private static final int UNIT_PRICE = 1;
+    private static final int EXPIRATION_DATE = 1 << 1;
+    private static final int QUANTITY_IN_STOCK = 1 << 2;
+    private static final int CREATED_AT = 1 << 3;
+    private static final int UPDATED_AT = 1 << 4;
+
+    private final ProductId id;
+    private final String name;
+    // Lowercased name for substring search, the same instance as the name when it has no capitals
+    private final String searchName;
+    private final int category;
+    private final long unitPrice;
+    private final byte unitPriceScale;
+    // Bit set of the nullable fields that hold a value
+    private final byte present;
+    // Dates are epoch days
+    private final int expirationDate;
+    private final int quantityInStock;
+    private final int createdAt;
+    private final int updatedAt;
+    private final long version;
+
+    private CompactProduct(ProductId id, String name, int category, long unitPrice, byte unitPriceScale, int present,
+                           int expirationDate, int quantityInStock, int createdAt, int updatedAt, long version) {
+        this.id = id;
+        this.name = name;
+        this.searchName = (name == null) ? null : NGramIndex.normalize(name);
+        this.category = category;
+        this.unitPrice = unitPrice;
+        this.unitPriceScale = unitPriceScale;
+        this.present = (byte) present;
+        this.expirationDate = expirationDate;
+        this.quantityInStock = quantityInStock;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    // Products whose price or dates do not fit the compact fields are rejected. ProductDTO validation
+    // keeps client input within these limits.
+    public static CompactProduct of(ProductId id, Product product, CategoryDictionary categories) {
+        BigDecimal price = product.getUnitPrice();
+        if (price != null && !fits(price)) {
+            // Only trailing zeros may be in the way, and the shortest form compares equal
+            price = price.stripTrailingZeros();
+            if (!fits(price)) {
+                throw new IllegalArgumentException("Unit price " + product.getUnitPrice() + " has too many digits to store");
+            }
+        }
+
+        int present = ((price != null) ? UNIT_PRICE : 0)
+                | ((product.getExpirationDate() != null) ? EXPIRATION_DATE : 0)
+                | ((product.getQuantityInStock() != null) ? QUANTITY_IN_STOCK : 0)
+                | ((product.getCreatedAt() != null) ? CREATED_AT : 0)
+                | ((product.getUpdatedAt() != null) ? UPDATED_AT : 0);
+        return new CompactProduct(
+                id,
+                product.getName(),
+                categories.codeOf(product.getCategory()),
+                (price == null) ? 0 : price.unscaledValue().longValueExact(),
+                (price == null) ? 0 : (byte) price.scale(),
+                present,
+                epochDayOf(product.getExpirationDate()),
+                (product.getQuantityInStock() == null) ? 0 : product.getQuantityInStock(),
+                epochDayOf(product.getCreatedAt()),
+                epochDayOf(product.getUpdatedAt()),
+                product.getVersion());
+    }
+
+    private static boolean fits(BigDecimal price) {
+        return price.unscaledValue().bitLength() <= 63 && (byte) price.scale() == price.scale();
+    }
+
+    private static int epochDayOf(LocalDate date) {
+        if (date == null) {
+            return 0;
+        }
+
+        long epochDay = date.toEpochDay();
+        if ((int) epochDay != epochDay) {
+            throw new IllegalArgumentException("Date " + date + " is out of the supported range");
+        }
+        return (int) epochDay;
+    }
+
+    // A search key for walking a sorted index from the given id and value of the sort property, the
+    // only property the values hold. Category keys carry their spelling themselves, so cursors never
+    // add categories to the dictionary.
+    public static CompactProduct sortKey(String property, ProductId id, Product values, CategoryDictionary categories) {
+        return property.equals("category") ? new CategoryKey(id, values.getCategory()) : of(id, values, categories);
+    }
+
+    private static final class CategoryKey extends CompactProduct {
+        private final String spelling;
+
+        private CategoryKey(ProductId id, String spelling) {
+            super(id, null, CategoryDictionary.NO_CATEGORY, 0, (byte) 0, 0, 0, 0, 0, 0, 0);
+            this.spelling = spelling;
+        }
+
+        @Override
+        String categoryOf(CategoryDictionary categories) {
+            return spelling;
+        }
+    }
+
+    public Product toProduct(CategoryDictionary categories) {
+        return Product.builder()
+                .id(id.toString())
+                .name(name)
+                .category(categories.spellingOf(category))
+                .unitPrice(has(UNIT_PRICE) ? getUnitPrice() : null)
+                .expirationDate(has(EXPIRATION_DATE) ? LocalDate.ofEpochDay(expirationDate) : null)
+                .quantityInStock(has(QUANTITY_IN_STOCK) ? quantityInStock : null)
+                .createdAt(has(CREATED_AT) ? LocalDate.ofEpochDay(createdAt) : null)
+                .updatedAt(has(UPDATED_AT) ? LocalDate.ofEpochDay(updatedAt) : null)
+                .version(version)
+                .build();
+    }
+
+    private boolean has(int field) {
+        return (present & field) != 0;
+    }
+
+    public ProductId getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSearchName() {
+        return searchName;
+    }
+
+    // Dictionary code of the category spelling, or NO_CATEGORY
+    public int getCategory() {
+        return category;
+    }
+
+    String categoryOf(CategoryDictionary categories) {
+        return categories.spellingOf(category);
+    }
+
+    public BigDecimal getUnitPrice() {
+        return has(UNIT_PRICE) ? BigDecimal.valueOf(unitPrice, unitPriceScale) : null;
+    }
+
+    // Same as BigDecimal equality, so 1.0 and 1.00 differ
+    public boolean hasSameUnitPrice(CompactProduct other) {
+        return (present & UNIT_PRICE) == (other.present & UNIT_PRICE)
+                && unitPrice == other.unitPrice && unitPriceScale == other.unitPriceScale;
+    }
+
+    public boolean hasQuantityInStock() {
+        return has(QUANTITY_IN_STOCK);
+    }
+
+    // Zero when the quantity is missing
+    public int getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Orders like InMemoryComparatorUtil orders the same property of Product, nulls last
+    public static Comparator<CompactProduct> propertyOrder(String property, CategoryDictionary categories) {
+        return switch (property) {
+            case "name" -> (p1, p2) -> compareNullsLast(p1.name, p2.name);
+            // Keys have no code, so equal codes always mean the same spelling
+            case "category" -> (p1, p2) -> (p1.category == p2.category && p1.category != CategoryDictionary.NO_CATEGORY)
+                    ? 0
+                    : compareNullsLast(p1.categoryOf(categories), p2.categoryOf(categories));
+            case "unitPrice" -> CompactProduct::compareUnitPrice;
+            case "expirationDate" -> (p1, p2) -> compareInts(p1, p2, EXPIRATION_DATE, p1.expirationDate, p2.expirationDate);
+            case "quantityInStock" -> (p1, p2) -> compareInts(p1, p2, QUANTITY_IN_STOCK, p1.quantityInStock, p2.quantityInStock);
+            default -> throw new IllegalArgumentException("Unsupported sort property");
+        };
+    }
+
+    private static int compareNullsLast(String value1, String value2) {
+        if (value1 == null || value2 == null) {
+            return (value1 == null) ? ((value2 == null) ? 0 : 1) : -1;
+        }
+        return value1.compareTo(value2);
+    }
+
+    private static int compareInts(CompactProduct p1, CompactProduct p2, int field, int value1, int value2) {
+        if (!p1.has(field) || !p2.has(field)) {
+            return !p1.has(field) ? (!p2.has(field) ? 0 : 1) : -1;
+        }
+        return Integer.compare(value1, value2);
+    }
+
+    // Prices of the same scale compare as longs, and only mixed scales need a BigDecimal
+    private static int compareUnitPrice(CompactProduct p1, CompactProduct p2) {
+        if (!p1.has(UNIT_PRICE) || !p2.has(UNIT_PRICE)) {
+            return !p1.has(UNIT_PRICE) ? (!p2.has(UNIT_PRICE) ? 0 : 1) : -1;
+        }
+        if (p1.unitPriceScale == p2.unitPriceScale) {
+            return Long.compare(p1.unitPrice, p2.unitPrice);
+        }
+        return p1.getUnitPrice().compareTo(p2.getUnitPrice());
+    }
+}
@@ -0,0 +1,84 @@
+package inc.encora.inventory_manager.product.repositories.storage;
+
+import java.util.UUID;
+
+// A product id as stored by the repository. Ids in canonical lowercase UUID form, which is what the
+// API generates, are kept as their 128 bits; any other id keeps its text. Ordering matches the order
+// of the id strings, so sorted walks and cursors behave exactly as with string ids.
+public final class ProductId implements Comparable<ProductId> {
+    private static final int UUID_LENGTH = 36;
+
+    private final long high;
+    private final long low;
+    // Null when the id is a canonical UUID
+    private final String text;
+
+    private ProductId(long high, long low, String text) {
+        this.high = high;
+        this.low = low;
+        this.text = text;
+    }
+
+    public static ProductId of(String id) {
+        if (id.length() != UUID_LENGTH) {
+            return new ProductId(0, 0, id);
+        }
+
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return new ProductId(0, 0, id);
+                }
+                continue;
+            }
+
+            int digit = (c >= '0' && c <= '9') ? c - '0' : (c >= 'a' && c <= 'f') ? c - 'a' + 10 : -1;
+            if (digit < 0) {
+                return new ProductId(0, 0, id);
+            }
+            if (digits++ < 16) {
+                high = (high << 4) | digit;
+            } else {
+                low = (low << 4) | digit;
+            }
+        }
+        return new ProductId(high, low, null);
+    }
+
+    @Override
+    public String toString() {
+        return (text == null) ? new UUID(high, low).toString() : text;
+    }
+
+    // Fixed-width lowercase hex sorts like the unsigned number it spells
+    @Override
+    public int compareTo(ProductId other) {
+        if (text == null && other.text == null) {
+            int highOrder = Long.compareUnsigned(high, other.high);
+            return (highOrder != 0) ? highOrder : Long.compareUnsigned(low, other.low);
+        }
+        return toString().compareTo(other.toString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProductId other)) {
+            return false;
+        }
+        return (text == null)
+                ? other.text == null && high == other.high && low == other.low
+                : text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return (text == null) ? Long.hashCode(high ^ low) : text.hashCode();
+    }
+}
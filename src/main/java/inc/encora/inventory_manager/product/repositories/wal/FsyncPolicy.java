@@ -0,0 +1,11 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+public enum FsyncPolicy {
+    // Every write waits for its own fsync, although concurrent writers share one when they can
+    ALWAYS,
+    // Writers wait for a background fsync issued every interval, so many writes share one
+    GROUP,
+    // Writes reach the OS before returning but are flushed to disk whenever the OS decides. They
+    // survive the process crashing, not the machine.
+    OS
+}
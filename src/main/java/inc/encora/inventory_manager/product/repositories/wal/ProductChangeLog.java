@@ -0,0 +1,45 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+
+import java.util.List;
+
+// Where repositories record their writes before applying them, so a restart can rebuild the catalog
+public interface ProductChangeLog extends AutoCloseable {
+    // Used while durability is off: nothing is recorded and every write counts as durable
+    ProductChangeLog NONE = new ProductChangeLog() {
+        @Override
+        public long append(List<ProductLogEntry> entries) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+
+        @Override
+        public long replay(ProductRepository target) {
+            return 0;
+        }
+    };
+
+    // Records the entries as one unit, which replay applies entirely or not at all. Returns the
+    // position to pass to awaitDurable.
+    long append(List<ProductLogEntry> entries);
+
+    // Blocks until everything up to the position survives a crash, as far as the sync policy promises.
+    // Callers should not hold locks other writers need while waiting.
+    void awaitDurable(long position);
+
+    // Applies the latest snapshot, if any, and every intact record after it to the target, and returns
+    // how many of those there were. Must be called once, before anything is appended.
+    long replay(ProductRepository target);
+
+    // Records the current state of the source so the log no longer needs the records before it
+    default void snapshot(ProductRepository source) {
+    }
+
+    @Override
+    default void close() {
+    }
+}
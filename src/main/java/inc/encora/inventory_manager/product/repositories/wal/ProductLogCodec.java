@@ -0,0 +1,123 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.models.Product;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary layout of a record payload: the entry count, then each entry as its type followed by its
+// fields. Nullable fields are preceded by a presence flag.
+final class ProductLogCodec {
+    private ProductLogCodec() {
+    }
+
+    static void write(DataOutput out, List<ProductLogEntry> entries) throws IOException {
+        out.writeInt(entries.size());
+        for (ProductLogEntry entry : entries) {
+            out.writeByte(entry.type().ordinal());
+            switch (entry.type()) {
+                case SAVE -> writeProduct(out, entry.product());
+                case DELETE -> writeString(out, entry.id());
+                case CLEAR -> {
+                }
+            }
+        }
+    }
+
+    static List<ProductLogEntry> read(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Negative entry count");
+        }
+
+        List<ProductLogEntry> entries = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            int type = in.readUnsignedByte();
+            if (type >= ProductLogEntry.Type.values().length) {
+                throw new IOException("Unknown entry type " + type);
+            }
+
+            entries.add(switch (ProductLogEntry.Type.values()[type]) {
+                case SAVE -> ProductLogEntry.save(readProduct(in));
+                case DELETE -> ProductLogEntry.delete(readString(in));
+                case CLEAR -> ProductLogEntry.clear();
+            });
+        }
+        return entries;
+    }
+
+    private static void writeProduct(DataOutput out, Product product) throws IOException {
+        writeString(out, product.getId());
+        writeNullableString(out, product.getName());
+        writeNullableString(out, product.getCategory());
+        writeNullableString(out, (product.getUnitPrice() == null) ? null : product.getUnitPrice().toString());
+        writeNullableDate(out, product.getExpirationDate());
+        out.writeBoolean(product.getQuantityInStock() != null);
+        if (product.getQuantityInStock() != null) {
+            out.writeInt(product.getQuantityInStock());
+        }
+        writeNullableDate(out, product.getCreatedAt());
+        writeNullableDate(out, product.getUpdatedAt());
+        out.writeLong(product.getVersion());
+    }
+
+    private static Product readProduct(DataInput in) throws IOException {
+        Product.ProductBuilder product = Product.builder().id(readString(in));
+        product.name(readNullableString(in));
+        product.category(readNullableString(in));
+        String unitPrice = readNullableString(in);
+        product.unitPrice((unitPrice == null) ? null : new BigDecimal(unitPrice));
+        product.expirationDate(readNullableDate(in));
+        product.quantityInStock(in.readBoolean() ? in.readInt() : null);
+        product.createdAt(readNullableDate(in));
+        product.updatedAt(readNullableDate(in));
+        product.version(in.readLong());
+        return product.build();
+    }
+
+    // Length-prefixed UTF-8, since DataOutput.writeUTF caps strings at 64 KB
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative string length");
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+
+    private static void writeNullableDate(DataOutput out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochDay());
+        }
+    }
+
+    private static LocalDate readNullableDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+}
@@ -0,0 +1,25 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.models.Product;
+
+// A single write as recorded in the change log
+public record ProductLogEntry(Type type, String id, Product product) {
+    public enum Type {
+        SAVE,
+        DELETE,
+        // Every product was removed at once
+        CLEAR
+    }
+
+    public static ProductLogEntry save(Product product) {
+        return new ProductLogEntry(Type.SAVE, product.getId(), product);
+    }
+
+    public static ProductLogEntry delete(String id) {
+        return new ProductLogEntry(Type.DELETE, id, null);
+    }
+
+    public static ProductLogEntry clear() {
+        return new ProductLogEntry(Type.CLEAR, null, null);
+    }
+}
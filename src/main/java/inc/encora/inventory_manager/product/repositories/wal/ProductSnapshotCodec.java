@@ -0,0 +1,99 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.models.Product;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Binary layout of a snapshot product: a bit set of the fields present, the id, then each present
+// field. Dates are epoch days and prices their unscaled digits plus scale, so products decode straight
+// from a mapped buffer without parsing text.
+final class ProductSnapshotCodec {
+    private static final int NAME = 1;
+    private static final int CATEGORY = 1 << 1;
+    private static final int UNIT_PRICE = 1 << 2;
+    private static final int EXPIRATION_DATE = 1 << 3;
+    private static final int QUANTITY_IN_STOCK = 1 << 4;
+    private static final int CREATED_AT = 1 << 5;
+    private static final int UPDATED_AT = 1 << 6;
+
+    private ProductSnapshotCodec() {
+    }
+
+    static void write(DataOutput out, Product product) throws IOException {
+        int present = (product.getName() != null ? NAME : 0)
+                | (product.getCategory() != null ? CATEGORY : 0)
+                | (product.getUnitPrice() != null ? UNIT_PRICE : 0)
+                | (product.getExpirationDate() != null ? EXPIRATION_DATE : 0)
+                | (product.getQuantityInStock() != null ? QUANTITY_IN_STOCK : 0)
+                | (product.getCreatedAt() != null ? CREATED_AT : 0)
+                | (product.getUpdatedAt() != null ? UPDATED_AT : 0);
+        out.writeByte(present);
+        writeString(out, product.getId());
+        if ((present & NAME) != 0) {
+            writeString(out, product.getName());
+        }
+        if ((present & CATEGORY) != 0) {
+            writeString(out, product.getCategory());
+        }
+        if ((present & UNIT_PRICE) != 0) {
+            byte[] unscaled = product.getUnitPrice().unscaledValue().toByteArray();
+            out.writeInt(product.getUnitPrice().scale());
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+        }
+        if ((present & EXPIRATION_DATE) != 0) {
+            out.writeInt((int) product.getExpirationDate().toEpochDay());
+        }
+        if ((present & QUANTITY_IN_STOCK) != 0) {
+            out.writeInt(product.getQuantityInStock());
+        }
+        if ((present & CREATED_AT) != 0) {
+            out.writeInt((int) product.getCreatedAt().toEpochDay());
+        }
+        if ((present & UPDATED_AT) != 0) {
+            out.writeInt((int) product.getUpdatedAt().toEpochDay());
+        }
+        out.writeLong(product.getVersion());
+    }
+
+    static Product read(ByteBuffer in) {
+        int present = in.get();
+        Product.ProductBuilder product = Product.builder().id(readString(in));
+        if ((present & NAME) != 0) {
+            product.name(readString(in));
+        }
+        if ((present & CATEGORY) != 0) {
+            product.category(readString(in));
+        }
+        if ((present & UNIT_PRICE) != 0) {
+            int scale = in.getInt();
+            byte[] unscaled = new byte[in.getInt()];
+            in.get(unscaled);
+            product.unitPrice(new BigDecimal(new BigInteger(unscaled), scale));
+        }
+        product.expirationDate(((present & EXPIRATION_DATE) != 0) ? LocalDate.ofEpochDay(in.getInt()) : null);
+        product.quantityInStock(((present & QUANTITY_IN_STOCK) != 0) ? in.getInt() : null);
+        product.createdAt(((present & CREATED_AT) != 0) ? LocalDate.ofEpochDay(in.getInt()) : null);
+        product.updatedAt(((present & UPDATED_AT) != 0) ? LocalDate.ofEpochDay(in.getInt()) : null);
+        product.version(in.getLong());
+        return product.build();
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,220 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// A compact binary copy of the whole catalog, tagged with the change log position it covers. It is
+// written to a temporary file and renamed into place once synced, so the file at the path is always
+// complete. Products are packed into checksummed blocks that are loaded in parallel straight from a
+// memory mapping, without copying the file into the heap first.
+public class ProductSnapshotFile {
+    static final int MAGIC = 0x50534E31;
+    // Magic, log position, product count and block count
+    static final int HEADER_BYTES = 24;
+    // Payload length, CRC32C of the payload and product count
+    static final int BLOCK_HEADER_BYTES = 12;
+    private static final int BLOCK_TARGET_BYTES = 1 << 20;
+    // A single mapping cannot exceed 2 GB, so larger snapshots are mapped one window at a time
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private final Path path;
+
+    public ProductSnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private Path temporaryPath() {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    // Restores every product of the snapshot into the target and returns the change log position it
+    // covers, or -1 when there is no snapshot yet
+    public long load(ProductRepository target) {
+        try {
+            Files.deleteIfExists(temporaryPath());
+            if (!Files.exists(path)) {
+                return -1;
+            }
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_BYTES) {
+                    throw new IOException("Truncated snapshot header");
+                }
+
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Not a product snapshot");
+                }
+                long logPosition = header.getLong();
+                long productCount = header.getLong();
+                int blockCount = header.getInt();
+
+                List<ByteBuffer> blocks = mapBlocks(channel, size, blockCount);
+                long restored = blocks.parallelStream().mapToLong(block -> restoreBlock(block, target)).sum();
+                if (restored != productCount) {
+                    throw new IOException("Snapshot holds " + restored + " products instead of " + productCount);
+                }
+                return logPosition;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the product snapshot " + path, e);
+        }
+    }
+
+    // Mappings stay valid once the channel is closed, until the buffers are garbage collected
+    private static List<ByteBuffer> mapBlocks(FileChannel channel, long size, int blockCount) throws IOException {
+        List<ByteBuffer> blocks = new ArrayList<>(blockCount);
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        long offset = HEADER_BYTES;
+        for (int i = 0; i < blockCount; i++) {
+            if (size - offset < BLOCK_HEADER_BYTES) {
+                throw new IOException("Truncated snapshot block");
+            }
+            if (window == null || offset + BLOCK_HEADER_BYTES > windowStart + window.capacity()) {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(MAX_WINDOW_BYTES, size - windowStart));
+            }
+
+            int length = window.getInt((int) (offset - windowStart));
+            if (length < 0 || length > size - offset - BLOCK_HEADER_BYTES || length > MAX_WINDOW_BYTES - BLOCK_HEADER_BYTES) {
+                throw new IOException("Invalid snapshot block length " + length);
+            }
+
+            long blockEnd = offset + BLOCK_HEADER_BYTES + length;
+            if (blockEnd > windowStart + window.capacity()) {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(MAX_WINDOW_BYTES, size - windowStart));
+            }
+            blocks.add(window.slice((int) (offset - windowStart), BLOCK_HEADER_BYTES + length));
+            offset = blockEnd;
+        }
+        return blocks;
+    }
+
+    private static long restoreBlock(ByteBuffer block, ProductRepository target) {
+        int length = block.getInt(0);
+        int checksum = block.getInt(4);
+        int count = block.getInt(8);
+        ByteBuffer payload = block.slice(BLOCK_HEADER_BYTES, length);
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum || count < 0) {
+            throw new UncheckedIOException(new IOException("Corrupted snapshot block"));
+        }
+
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(ProductSnapshotCodec.read(payload));
+        }
+        if (payload.hasRemaining()) {
+            throw new UncheckedIOException(new IOException("Snapshot block has trailing bytes"));
+        }
+
+        target.restoreAll(products);
+        return count;
+    }
+
+    // Replaces the current snapshot once the new one is complete and synced. The products are read
+    // lazily, so memory stays bounded by one block whatever the catalog size.
+    public void write(long logPosition, Stream<Product> products) {
+        Path temporary = temporaryPath();
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_BYTES);
+                ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_TARGET_BYTES + (64 << 10));
+                DataOutputStream out = new DataOutputStream(block);
+                long productCount = 0;
+                int blockCount = 0;
+                int blockProducts = 0;
+
+                Iterator<Product> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    ProductSnapshotCodec.write(out, iterator.next());
+                    productCount++;
+                    blockProducts++;
+                    if (block.size() >= BLOCK_TARGET_BYTES) {
+                        writeBlock(channel, block, blockProducts);
+                        blockCount++;
+                        blockProducts = 0;
+                    }
+                }
+                if (blockProducts > 0) {
+                    writeBlock(channel, block, blockProducts);
+                    blockCount++;
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC)
+                        .putLong(logPosition)
+                        .putLong(productCount)
+                        .putInt(blockCount)
+                        .flip();
+                long headerPosition = 0;
+                while (header.hasRemaining()) {
+                    headerPosition += channel.write(header, headerPosition);
+                }
+                channel.force(true);
+            }
+
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory(path);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw new UncheckedIOException("Could not write the product snapshot " + path, e);
+        }
+    }
+
+    private static void writeBlock(FileChannel channel, ByteArrayOutputStream block, int productCount) throws IOException {
+        byte[] payload = block.toByteArray();
+        block.reset();
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer[] buffers = {
+                ByteBuffer.allocate(BLOCK_HEADER_BYTES).putInt(payload.length).putInt((int) crc.getValue()).putInt(productCount).flip(),
+                ByteBuffer.wrap(payload)
+        };
+        while (buffers[1].hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    // Makes a rename durable where the platform allows syncing a directory
+    static void syncDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on every OS, and there the rename is as durable as the OS makes it
+        }
+    }
+}
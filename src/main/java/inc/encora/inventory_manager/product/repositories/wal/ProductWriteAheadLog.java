@@ -0,0 +1,514 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+// Append-only file of product writes. Each record is framed as its payload length, the CRC32C of the
+// payload, then the payload itself, so a record cut short or garbled by a crash is recognized on
+// replay. Replay stops at the first such record and truncates the file there, since everything after
+// it was written later and cannot have been acknowledged as durable either.
+//
+// Positions are logical: the file header holds the position of its first record, so positions keep
+// growing when snapshots drop the records they cover from the front of the file.
+public class ProductWriteAheadLog implements ProductChangeLog {
+    static final int FILE_MAGIC = 0x50574C31;
+    // Magic, then the position of the first record in the file
+    static final int FILE_HEADER_BYTES = 12;
+    static final int HEADER_BYTES = 8;
+    // Far above any real record, but small enough that a garbled length is caught before allocating
+    static final int MAX_RECORD_BYTES = 256 * 1024 * 1024;
+
+    private final Path path;
+    private final FsyncPolicy fsyncPolicy;
+    private final long groupCommitMillis;
+    private final ProductSnapshotFile snapshotFile;
+    private final long snapshotIntervalMillis;
+    private final long snapshotMinLogBytes;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private volatile FileChannel channel;
+    // Appends made while replaying come from the replay itself and are already in the file
+    private volatile boolean replaying;
+    private volatile boolean open;
+    // Position of the first record in the file
+    private volatile long base;
+    private volatile long written;
+    private volatile long durable;
+    private volatile IOException syncFailure;
+    // Set when the last periodic snapshot failed, and cleared by the next one that succeeds
+    private volatile RuntimeException snapshotFailure;
+    private Thread flusher;
+    private Thread snapshotter;
+
+    public ProductWriteAheadLog(Path path, FsyncPolicy fsyncPolicy, long groupCommitMillis) {
+        this(path, fsyncPolicy, groupCommitMillis, null, 0, 0);
+    }
+
+    // Without a snapshot file the log only ever grows. With one, the catalog is snapshotted every
+    // interval once the log holds at least the given number of bytes, and an interval of 0 leaves
+    // snapshots to explicit snapshot calls.
+    public ProductWriteAheadLog(Path path, FsyncPolicy fsyncPolicy, long groupCommitMillis,
+                                ProductSnapshotFile snapshotFile, long snapshotIntervalMillis, long snapshotMinLogBytes) {
+        this.path = path;
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitMillis = groupCommitMillis;
+        this.snapshotFile = snapshotFile;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.snapshotMinLogBytes = snapshotMinLogBytes;
+    }
+
+    private record Frame(int bytes, List<ProductLogEntry> entries) {
+    }
+
+    // Restores the latest snapshot, then applies the records written after it. Records the snapshot
+    // already covers are skipped, as the file may still hold them when a crash came between writing
+    // the snapshot and dropping them.
+    @Override
+    public long replay(ProductRepository target) {
+        if (channel != null) {
+            throw new IllegalStateException("The product log was already replayed");
+        }
+
+        long records = 0;
+        long validEnd;
+        boolean restart;
+        replaying = true;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+
+            long snapshotPosition = (snapshotFile == null) ? -1 : snapshotFile.load(target);
+            if (snapshotPosition >= 0) {
+                records++;
+            }
+            long replayFrom = Math.max(snapshotPosition, 0);
+
+            long fileLength = Files.exists(path) ? Files.size(path) : 0;
+            // A file without a complete header was being created when the process stopped
+            restart = fileLength < FILE_HEADER_BYTES;
+            validEnd = replayFrom;
+            if (!restart) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+                    if (in.readInt() != FILE_MAGIC) {
+                        throw new IOException("Not a product log");
+                    }
+                    base = in.readLong();
+                    if (base > replayFrom) {
+                        throw new IllegalStateException("The product log starts at position " + base
+                                + " but the latest snapshot only covers up to " + replayFrom);
+                    }
+
+                    validEnd = base;
+                    Frame frame;
+                    while ((frame = readFrame(in, fileLength - fileOffset(validEnd))) != null) {
+                        if (validEnd >= replayFrom) {
+                            apply(target, frame.entries());
+                            records++;
+                        }
+                        validEnd += frame.bytes();
+                    }
+                }
+                // The snapshot is newer than anything left in the log, which is then of no further use
+                restart = validEnd < replayFrom;
+            }
+
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (restart) {
+                base = replayFrom;
+                validEnd = replayFrom;
+                channel.truncate(0);
+                writeFileHeader(channel, base);
+                channel.force(true);
+            } else if (channel.size() > fileOffset(validEnd)) {
+                channel.truncate(fileOffset(validEnd));
+                channel.force(true);
+            }
+            channel.position(fileOffset(validEnd));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the product log " + path, e);
+        } finally {
+            replaying = false;
+        }
+
+        written = validEnd;
+        durable = validEnd;
+        open = true;
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            flusher = Thread.ofPlatform().daemon().name("product-log-flusher").start(this::flushPeriodically);
+        }
+        if (snapshotFile != null && snapshotIntervalMillis > 0) {
+            snapshotter = Thread.ofPlatform().daemon().name("product-snapshotter").start(() -> snapshotPeriodically(target));
+        }
+        return records;
+    }
+
+    private long fileOffset(long position) {
+        return FILE_HEADER_BYTES + position - base;
+    }
+
+    private static void writeFileHeader(FileChannel file, long firstPosition) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(FILE_MAGIC).putLong(firstPosition).flip();
+        while (header.hasRemaining()) {
+            file.write(header);
+        }
+    }
+
+    // Returns null once the rest of the file does not hold a complete, intact record
+    private static Frame readFrame(DataInputStream in, long remaining) throws IOException {
+        if (remaining < HEADER_BYTES) {
+            return null;
+        }
+
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length < 0 || length > MAX_RECORD_BYTES || length > remaining - HEADER_BYTES) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        if (checksum(payload) != checksum) {
+            return null;
+        }
+
+        try {
+            return new Frame(HEADER_BYTES + length, ProductLogCodec.read(new DataInputStream(new ByteArrayInputStream(payload))));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Consecutive saves are applied together so replaying a seeded catalog stays a bulk load. They are
+    // restored with their recorded versions, which also makes replaying on top of a snapshot that
+    // already holds some of them harmless.
+    private static void apply(ProductRepository target, List<ProductLogEntry> entries) {
+        List<Product> saves = new ArrayList<>();
+        for (ProductLogEntry entry : entries) {
+            if (entry.type() == ProductLogEntry.Type.SAVE) {
+                saves.add(entry.product());
+                continue;
+            }
+
+            if (!saves.isEmpty()) {
+                target.restoreAll(saves);
+                saves = new ArrayList<>();
+            }
+            if (entry.type() == ProductLogEntry.Type.DELETE) {
+                target.deleteById(entry.id());
+            } else {
+                target.deleteAll();
+            }
+        }
+        if (!saves.isEmpty()) {
+            target.restoreAll(saves);
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // Writes straight to the file rather than to a user-space buffer, so a process crash loses nothing
+    // that was acknowledged. Only the sync policy decides what a power loss can take.
+    @Override
+    public long append(List<ProductLogEntry> entries) {
+        if (replaying) {
+            return 0;
+        }
+        if (!open) {
+            throw new IllegalStateException("The product log is not open for writing");
+        }
+
+        ByteBuffer record = encode(entries);
+        appendLock.lock();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            written += record.limit();
+            return written;
+        } catch (IOException e) {
+            // A partly written record would hide every record appended after it from replay
+            try {
+                channel.truncate(fileOffset(written));
+                channel.position(fileOffset(written));
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw new UncheckedIOException("Could not append to the product log " + path, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static ByteBuffer encode(List<ProductLogEntry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * entries.size() + HEADER_BYTES);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(0);
+            ProductLogCodec.write(out, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.limit() - HEADER_BYTES;
+        if (length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Log record of " + length + " bytes exceeds " + MAX_RECORD_BYTES);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        switch (fsyncPolicy) {
+            case ALWAYS -> syncTo(position);
+            case GROUP -> awaitFlusher(position);
+            case OS -> {
+            }
+        }
+    }
+
+    // Whoever syncs covers everything written so far, so writers queued behind it usually find their
+    // position already durable
+    private void syncTo(long position) {
+        syncLock.lock();
+        try {
+            if (durable >= position) {
+                return;
+            }
+
+            long target = written;
+            channel.force(false);
+            durable = Math.max(durable, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync the product log " + path, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void awaitFlusher(long position) {
+        syncLock.lock();
+        try {
+            while (durable < position) {
+                if (syncFailure != null) {
+                    throw new UncheckedIOException("Could not sync the product log " + path, syncFailure);
+                }
+                if (!open) {
+                    throw new IllegalStateException("The product log was closed");
+                }
+                synced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the product log", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Parks rather than sleeps: interrupting a thread inside a FileChannel call would close the channel
+    private void flushPeriodically() {
+        while (open) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(groupCommitMillis));
+            long target = written;
+            if (!open || target <= durable) {
+                continue;
+            }
+
+            syncLock.lock();
+            try {
+                channel.force(false);
+                durable = Math.max(durable, target);
+            } catch (IOException e) {
+                syncFailure = e;
+                return;
+            } finally {
+                synced.signalAll();
+                syncLock.unlock();
+            }
+        }
+    }
+
+    // Snapshots every product of the source without blocking its writers, then drops the records the
+    // snapshot covers from the log. The snapshot starts at the current end of the log, and once every
+    // write recorded up to there is visible in the source, the products are streamed from it while
+    // writes go on. It may therefore also hold some later writes, which replay simply applies again.
+    @Override
+    public void snapshot(ProductRepository source) {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("The product log has no snapshot file");
+        }
+
+        snapshotLock.lock();
+        try {
+            if (!open) {
+                throw new IllegalStateException("The product log is not open for writing");
+            }
+
+            // The log must not lose, in a crash, records the snapshot claims to cover
+            long position = written;
+            syncTo(position);
+            source.awaitRecordedWrites();
+            try (Stream<Product> products = source.streamByNameOrCategoryOrQuantityInStock(null, null, null)) {
+                snapshotFile.write(position, products);
+            }
+            dropRecordsBefore(position);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Copies the records from the position on into a new file, which then replaces the log. Most of
+    // the copy runs while writers keep appending, and only what they appended meanwhile is copied
+    // with appends blocked.
+    private void dropRecordsBefore(long position) {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        FileChannel target = null;
+        try {
+            target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeFileHeader(target, position);
+            long copied = copy(position, written, target);
+
+            appendLock.lock();
+            syncLock.lock();
+            try {
+                copy(copied, written, target);
+                target.force(true);
+                Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                ProductSnapshotFile.syncDirectory(path);
+
+                FileChannel previous = channel;
+                channel = target;
+                base = position;
+                durable = written;
+                target = null;
+                previous.close();
+            } finally {
+                synced.signalAll();
+                syncLock.unlock();
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not drop snapshotted records from the product log " + path, e);
+        } finally {
+            if (target != null) {
+                try {
+                    target.close();
+                    Files.deleteIfExists(compacted);
+                } catch (IOException e) {
+                    // The next snapshot truncates the leftover file anyway
+                }
+            }
+        }
+    }
+
+    // Appends the records between the two positions to the target and returns the end position
+    private long copy(long from, long to, FileChannel target) throws IOException {
+        long offset = fileOffset(from);
+        long end = fileOffset(to);
+        while (offset < end) {
+            offset += channel.transferTo(offset, end - offset, target);
+        }
+        return to;
+    }
+
+    private void snapshotPeriodically(ProductRepository source) {
+        while (open) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMillis));
+            if (!open || written - base < snapshotMinLogBytes) {
+                continue;
+            }
+
+            try {
+                snapshot(source);
+                snapshotFailure = null;
+            } catch (RuntimeException e) {
+                // The log keeps every record, so the next attempt loses nothing
+                snapshotFailure = e;
+            }
+        }
+    }
+
+    // Size of the log file, header included
+    public long getWrittenBytes() {
+        return fileOffset(written);
+    }
+
+    public RuntimeException getSnapshotFailure() {
+        return snapshotFailure;
+    }
+
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+
+        open = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+        if (snapshotter != null) {
+            LockSupport.unpark(snapshotter);
+        }
+
+        // Lets a running snapshot finish rather than leaving it half done
+        snapshotLock.lock();
+        appendLock.lock();
+        syncLock.lock();
+        try {
+            channel.force(false);
+            durable = written;
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the product log " + path, e);
+        } finally {
+            synced.signalAll();
+            syncLock.unlock();
+            appendLock.unlock();
+            snapshotLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package inc.encora.inventory_manager.product.services;
+
+import inc.encora.inventory_manager.product.dtos.ProductImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ProductImportResultDTO importProducts(InputStream input) throws IOException;
+}
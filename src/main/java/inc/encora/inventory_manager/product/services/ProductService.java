@@ -1,31 +1,58 @@
 package inc.encora.inventory_manager.product.services;
 
+import inc.encora.inventory_manager.common.cache.CacheStats;
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
 import inc.encora.inventory_manager.product.dtos.InventoryMetricDTO;
 import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.dtos.ProductLookupResultDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentResultDTO;
 import inc.encora.inventory_manager.product.models.Product;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface ProductService {
     Iterable<Product> findAll();
 
     Page<Product> findAll(Pageable pageable);
 
+    Window<Product> findAll(KeysetScrollPosition position, Sort sort, int limit);
+
+    Product findById(String id);
+
+    List<ProductLookupResultDTO> findAllById(List<String> ids);
+
     Product save(ProductDTO newProduct);
 
-    Product update(String id, ProductDTO productToUpdate);
+    Product update(String id, ProductDTO productToUpdate, Set<Long> expectedVersions);
+
+    Product markProductOutOfStock(String id, Set<Long> expectedVersions);
+
+    Product markProductInStock(String id, Set<Long> expectedVersions);
 
-    void markProductOutOfStock(String id);
+    Product adjustStock(String id, int delta, Set<Long> expectedVersions);
 
-    void markProductInStock(String id);
+    List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments, boolean allOrNothing);
 
     void deleteById(String id);
 
     Page<Product> search(Pageable pageable, String name, List<String> category, AvailabilityStatus availability);
 
+    CacheStats getSearchCacheStats();
+
+    Window<Product> search(KeysetScrollPosition position, Sort sort, int limit, String name, List<String> category, AvailabilityStatus availability);
+
+    Stream<Product> export(String name, List<String> category, AvailabilityStatus availability);
+
+    long getCatalogVersion();
+
     List<String> findAllCategories();
 
     List<InventoryMetricDTO> getInventoryMetrics();
@@ -0,0 +1,40 @@
+package inc.encora.inventory_manager.product.services.cache;
+
+import inc.encora.inventory_manager.common.cache.GenerationalLruCache;
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Component
+public class ProductSearchCache extends GenerationalLruCache<ProductSearchCache.Key, Page<Product>> {
+
+    // Normalized the way the repository interprets a search, so equivalent queries share an entry
+    public record Key(String name, Set<String> categories, AvailabilityStatus availability, Pageable pageable) {
+        public static Key of(Pageable pageable, String name, List<String> categories, AvailabilityStatus availability) {
+            Set<String> categoryKeys = new HashSet<>();
+            if (categories != null && !categories.isEmpty() && !categories.getFirst().equalsIgnoreCase("all")) {
+                categories.forEach(category -> categoryKeys.add(category.toLowerCase(Locale.ROOT)));
+            }
+
+            return new Key(
+                    (name == null) ? "" : name.toLowerCase(Locale.ROOT),
+                    categoryKeys,
+                    (availability == null) ? AvailabilityStatus.ALL : availability,
+                    pageable);
+        }
+    }
+
+    @Autowired
+    public ProductSearchCache(@Value("${inventory.search-cache.max-entries:1000}") int maxEntries) {
+        super(maxEntries);
+    }
+}
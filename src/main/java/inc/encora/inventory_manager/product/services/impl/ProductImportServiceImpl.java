@@ -0,0 +1,143 @@
+package inc.encora.inventory_manager.product.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.dtos.ProductImportErrorDTO;
+import inc.encora.inventory_manager.product.dtos.ProductImportResultDTO;
+import inc.encora.inventory_manager.product.mappers.ProductMapper;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.services.ProductImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Rows are read one at a time and saved in batches, so memory depends on the batch size rather than
+// on the body size. Batches are not rolled back when a later row fails.
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+    static final int BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Autowired
+    public ProductImportServiceImpl(ProductRepository productRepository, ObjectMapper objectMapper, Validator validator) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    // Accepts either a JSON array or newline-delimited JSON objects
+    @Override
+    public ProductImportResultDTO importProducts(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        long totalRows = 0;
+        long importedRows = 0;
+        long failedRows = 0;
+        List<ProductImportErrorDTO> errors = new ArrayList<>();
+        List<Product> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (MappingIterator<ProductDTO> rows = objectMapper.readerFor(ProductDTO.class).readValues(input)) {
+            while (true) {
+                long row = totalRows + 1;
+                Map<String, String> rowErrors;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    totalRows = row;
+                    rowErrors = validate(rows.nextValue(), batch);
+                } catch (DatabindException e) {
+                    // The iterator skips the rest of the broken row on the next read
+                    totalRows = row;
+                    rowErrors = Map.of(fieldOf(e), "Invalid value");
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON leaves no way to find where the next row starts
+                    totalRows = row;
+                    failedRows++;
+                    addError(errors, row, Map.of("details", "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                if (rowErrors != null) {
+                    failedRows++;
+                    addError(errors, row, rowErrors);
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    importedRows += flush(batch);
+                }
+            }
+        }
+        importedRows += flush(batch);
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        return ProductImportResultDTO.builder()
+                .totalRows(totalRows)
+                .importedRows(importedRows)
+                .failedRows(failedRows)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(totalRows * 1_000_000_000 / elapsedNanos)
+                .errors(errors)
+                .build();
+    }
+
+    // Adds the row to the batch when valid, otherwise returns its errors by field
+    private Map<String, String> validate(ProductDTO row, List<Product> batch) {
+        if (row == null) {
+            return Map.of("details", "Row must be a product object");
+        }
+
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            Map<String, String> rowErrors = new HashMap<>();
+            violations.forEach(violation -> rowErrors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            return rowErrors;
+        }
+
+        batch.add(ProductMapper.toProductEntity(row));
+        return null;
+    }
+
+    private int flush(List<Product> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        int saved = batch.size();
+        productRepository.saveAll(batch);
+        batch.clear();
+        return saved;
+    }
+
+    private static void addError(List<ProductImportErrorDTO> errors, long row, Map<String, String> rowErrors) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ProductImportErrorDTO(row, rowErrors));
+        }
+    }
+
+    private static String fieldOf(DatabindException e) {
+        if (!(e instanceof JsonMappingException mappingException) || mappingException.getPath().isEmpty()) {
+            return "details";
+        }
+        return mappingException.getPath().stream()
+                .map(reference -> (reference.getFieldName() != null) ? reference.getFieldName() : String.valueOf(reference.getIndex()))
+                .collect(Collectors.joining("."));
+    }
+}
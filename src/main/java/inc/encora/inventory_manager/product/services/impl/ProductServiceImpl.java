@@ -1,32 +1,57 @@
 package inc.encora.inventory_manager.product.services.impl;
 
+import inc.encora.inventory_manager.common.cache.CacheStats;
+import inc.encora.inventory_manager.common.exceptions.BadRequestException;
+import inc.encora.inventory_manager.common.exceptions.InsufficientStockException;
+import inc.encora.inventory_manager.common.exceptions.PreconditionFailedException;
 import inc.encora.inventory_manager.common.exceptions.ResourceNotFoundException;
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
 import inc.encora.inventory_manager.product.constants.DefaultStockValues;
+import inc.encora.inventory_manager.product.constants.ProductChangeType;
+import inc.encora.inventory_manager.product.constants.StockAdjustmentStatus;
 import inc.encora.inventory_manager.product.dtos.InventoryMetricDTO;
+import inc.encora.inventory_manager.product.dtos.ProductChangeEventDTO;
 import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.dtos.ProductLookupResultDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentResultDTO;
 import inc.encora.inventory_manager.product.mappers.ProductMapper;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
 import inc.encora.inventory_manager.product.models.Product;
 import inc.encora.inventory_manager.product.repositories.ProductRepository;
 import inc.encora.inventory_manager.product.services.ProductService;
+import inc.encora.inventory_manager.product.services.cache.ProductSearchCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
+    private final ProductSearchCache productSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ProductSearchCache productSearchCache,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productSearchCache = productSearchCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -40,112 +65,253 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Product save(ProductDTO newProduct) {
-        return productRepository.save(ProductMapper.toProductEntity(newProduct));
+    public Window<Product> findAll(KeysetScrollPosition position, Sort sort, int limit) {
+        return productRepository.findAll(position, sort, limit);
     }
 
     @Override
-    public Product update(String id, ProductDTO productToUpdate) {
-        Product existingProduct = productRepository
-                .findById(id)
+    public Product findById(String id) {
+        return productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    }
 
-        existingProduct.setName(productToUpdate.getName());
-        existingProduct.setCategory(productToUpdate.getCategory());
-        existingProduct.setUnitPrice(productToUpdate.getUnitPrice());
-        existingProduct.setExpirationDate(productToUpdate.getExpirationDate());
-        existingProduct.setQuantityInStock(productToUpdate.getQuantityInStock());
-        existingProduct.setUpdatedAt(LocalDate.now());
+    @Override
+    public List<ProductLookupResultDTO> findAllById(List<String> ids) {
+        // The repository answers in request order and skips unknown ids, so one pass pairs them up
+        Iterator<Product> found = productRepository.findAllById(ids).iterator();
+        Product next = found.hasNext() ? found.next() : null;
+        List<ProductLookupResultDTO> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (next != null && next.getId().equals(id)) {
+                results.add(new ProductLookupResultDTO(id, true, next));
+                next = found.hasNext() ? found.next() : null;
+            } else {
+                results.add(new ProductLookupResultDTO(id, false, null));
+            }
+        }
+        return results;
+    }
 
-        return productRepository.save(existingProduct);
+    @Override
+    public Product save(ProductDTO newProduct) {
+        return publishChange(ProductChangeType.CREATED, productRepository.save(ProductMapper.toProductEntity(newProduct)));
     }
 
     @Override
-    public void markProductOutOfStock(String id) {
-        Product existingProduct = productRepository
-                .findById(id)
+    public Product update(String id, ProductDTO productToUpdate, Set<Long> expectedVersions) {
+        Product updated = productRepository
+                .updateById(id, existingProduct -> {
+                    checkVersion(existingProduct, expectedVersions);
+                    existingProduct.setName(productToUpdate.getName());
+                    existingProduct.setCategory(productToUpdate.getCategory());
+                    existingProduct.setUnitPrice(productToUpdate.getUnitPrice());
+                    existingProduct.setExpirationDate(productToUpdate.getExpirationDate());
+                    existingProduct.setQuantityInStock(productToUpdate.getQuantityInStock());
+                    existingProduct.setUpdatedAt(LocalDate.now());
+                })
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        return publishChange(ProductChangeType.UPDATED, updated);
+    }
+
+    @Override
+    public Product markProductOutOfStock(String id, Set<Long> expectedVersions) {
+        return setQuantityInStock(id, DefaultStockValues.OUT_OF_STOCK.getValue(), expectedVersions);
+    }
 
-        existingProduct.setUpdatedAt(LocalDate.now());
-        existingProduct.setQuantityInStock(DefaultStockValues.OUT_OF_STOCK.getValue());
-        productRepository.save(existingProduct);
+    @Override
+    public Product markProductInStock(String id, Set<Long> expectedVersions) {
+        return setQuantityInStock(id, DefaultStockValues.RESTORED_STOCK.getValue(), expectedVersions);
     }
 
+    // The delta is applied under the product's lock, so concurrent adjustments never lose an update
     @Override
-    public void markProductInStock(String id) {
-        Product existingProduct = productRepository
-                .findById(id)
+    public Product adjustStock(String id, int delta, Set<Long> expectedVersions) {
+        Product adjusted = productRepository
+                .updateById(id, existingProduct -> {
+                    checkVersion(existingProduct, expectedVersions);
+                    int currentQuantity = (existingProduct.getQuantityInStock() == null) ? 0 : existingProduct.getQuantityInStock();
+                    long adjustedQuantity = (long) currentQuantity + delta;
+                    if (adjustedQuantity < 0) {
+                        // Throwing inside the updater leaves the stored product untouched
+                        throw new InsufficientStockException("Only " + currentQuantity + " units in stock");
+                    }
+                    if (adjustedQuantity > Integer.MAX_VALUE) {
+                        throw new BadRequestException("Quantity in stock is out of range");
+                    }
+
+                    existingProduct.setQuantityInStock((int) adjustedQuantity);
+                    existingProduct.setUpdatedAt(LocalDate.now());
+                })
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        return publishChange(ProductChangeType.STOCK_CHANGED, adjusted);
+    }
+
+    // Every movement is applied in one pass under the locks of all the products involved. Movements of
+    // the same product are applied in request order, each one seeing the result of the previous.
+    @Override
+    public List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments, boolean allOrNothing) {
+        Set<String> ids = new LinkedHashSet<>();
+        adjustments.forEach(adjustment -> ids.add(adjustment.getProductId()));
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        productRepository.updateAllById(ids, productsById -> {
+            boolean allApplied = true;
+            for (StockAdjustmentDTO adjustment : adjustments) {
+                StockAdjustmentResultDTO result = applyAdjustment(productsById.get(adjustment.getProductId()), adjustment);
+                allApplied &= result.getStatus() == StockAdjustmentStatus.APPLIED;
+                results.add(result);
+            }
+
+            if (allOrNothing && !allApplied) {
+                for (StockAdjustmentResultDTO result : results) {
+                    if (result.getStatus() == StockAdjustmentStatus.APPLIED) {
+                        result.setStatus(StockAdjustmentStatus.ROLLED_BACK);
+                        result.setQuantityInStock(null);
+                    }
+                }
+                return false;
+            }
+            return true;
+        });
+
+        // Subscribers get the stored state rather than a snapshot from inside the batch
+        Set<String> changedIds = new LinkedHashSet<>();
+        for (StockAdjustmentResultDTO result : results) {
+            if (result.getStatus() == StockAdjustmentStatus.APPLIED) {
+                changedIds.add(result.getProductId());
+            }
+        }
+        changedIds.forEach(changedId -> productRepository.findById(changedId)
+                .ifPresent(product -> publishChange(ProductChangeType.STOCK_CHANGED, product)));
+        return results;
+    }
+
+    private static StockAdjustmentResultDTO applyAdjustment(Product product, StockAdjustmentDTO adjustment) {
+        StockAdjustmentResultDTO result = new StockAdjustmentResultDTO(
+                adjustment.getProductId(), adjustment.getDelta(), StockAdjustmentStatus.NOT_FOUND, null);
+        if (product == null) {
+            return result;
+        }
+
+        int currentQuantity = (product.getQuantityInStock() == null) ? 0 : product.getQuantityInStock();
+        long adjustedQuantity = (long) currentQuantity + adjustment.getDelta();
+        result.setQuantityInStock(currentQuantity);
+        if (adjustment.getExpectedVersion() != null && adjustment.getExpectedVersion() != product.getVersion()) {
+            result.setStatus(StockAdjustmentStatus.VERSION_MISMATCH);
+        } else if (adjustedQuantity < 0) {
+            result.setStatus(StockAdjustmentStatus.INSUFFICIENT_STOCK);
+        } else if (adjustedQuantity > Integer.MAX_VALUE) {
+            result.setStatus(StockAdjustmentStatus.OUT_OF_RANGE);
+        } else {
+            product.setQuantityInStock((int) adjustedQuantity);
+            product.setUpdatedAt(LocalDate.now());
+            result.setStatus(StockAdjustmentStatus.APPLIED);
+            result.setQuantityInStock((int) adjustedQuantity);
+        }
+        return result;
+    }
+
+    private Product setQuantityInStock(String id, int quantityInStock, Set<Long> expectedVersions) {
+        Product updated = productRepository
+                .updateById(id, existingProduct -> {
+                    checkVersion(existingProduct, expectedVersions);
+                    existingProduct.setUpdatedAt(LocalDate.now());
+                    existingProduct.setQuantityInStock(quantityInStock);
+                })
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        return publishChange(ProductChangeType.STOCK_CHANGED, updated);
+    }
 
-        existingProduct.setUpdatedAt(LocalDate.now());
-        existingProduct.setQuantityInStock(DefaultStockValues.RESTORED_STOCK.getValue());
-        productRepository.save(existingProduct);
+    // Runs inside the repository's updater so the check and the write happen under the same lock.
+    // Null accepts any version.
+    private static void checkVersion(Product existingProduct, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(existingProduct.getVersion())) {
+            throw new PreconditionFailedException("Product has been modified");
+        }
     }
 
+    // The repository checks and deletes under the product's lock, so concurrent deletes of the same id
+    // publish a single event
     @Override
     public void deleteById(String id) {
-        productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        productRepository.deleteById(id);
+        productRepository.removeById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        eventPublisher.publishEvent(new ProductChangeEventDTO(ProductChangeType.DELETED, id, null));
+    }
+
+    // Published only once the write has been stored, outside the repository's locks
+    private Product publishChange(ProductChangeType type, Product product) {
+        eventPublisher.publishEvent(new ProductChangeEventDTO(type, product.getId(), product));
+        return product;
     }
 
     @Override
     public Page<Product> search(Pageable pageable, String name, List<String> category, AvailabilityStatus availability) {
-        return productRepository.findByNameOrCategoryOrQuantityInStock(pageable, name, category, availability);
+        // Any write moves the generation on, which invalidates every cached page at once
+        return productSearchCache.get(
+                ProductSearchCache.Key.of(pageable, name, category, availability),
+                productRepository.findGeneration(),
+                () -> productRepository.findByNameOrCategoryOrQuantityInStock(pageable, name, category, availability));
+    }
+
+    @Override
+    public CacheStats getSearchCacheStats() {
+        return productSearchCache.stats();
+    }
+
+    @Override
+    public Window<Product> search(KeysetScrollPosition position, Sort sort, int limit, String name, List<String> category, AvailabilityStatus availability) {
+        return productRepository.findByNameOrCategoryOrQuantityInStock(position, sort, limit, name, category, availability);
+    }
+
+    @Override
+    public Stream<Product> export(String name, List<String> category, AvailabilityStatus availability) {
+        return productRepository.streamByNameOrCategoryOrQuantityInStock(name, category, availability);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return productRepository.findGeneration();
     }
 
     @Override
     public List<String> findAllCategories() {
-        List<Product> products = new ArrayList<>();
-        productRepository.findAll().forEach(products::add);
-        List<String> categoriesList = products.stream().map(Product::getCategory).toList();
-        Set<String> categoriesSet = new HashSet<>(categoriesList);
-        return categoriesSet.stream().toList();
+        return productRepository.findAllCategories();
     }
 
-    private BigDecimal calculateAveragePrice(BigDecimal totalValue, int totalQuantity) {
+    private BigDecimal calculateAveragePrice(BigDecimal totalValue, long totalQuantity) {
         if (totalQuantity == 0) {
             return BigDecimal.ZERO;
         } else {
             return totalValue.divide(
-                    new BigDecimal(totalQuantity),
+                    BigDecimal.valueOf(totalQuantity),
                     2,
                     RoundingMode.HALF_UP
             );
         }
     }
 
-    private InventoryMetricDTO calculateMetricsForProducts(String categoryName, List<Product> products) {
-        int totalProductsInStock = products.stream()
-                .mapToInt(Product::getQuantityInStock)
-                .sum();
-
-        BigDecimal totalValueInStock = products.stream()
-                .map(Product::getProductValueInStock)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averagePriceInStock = calculateAveragePrice(totalValueInStock, totalProductsInStock);
-
+    private InventoryMetricDTO toInventoryMetric(String categoryName, long unitsInStock, BigDecimal valueInStock) {
         return new InventoryMetricDTO(
                 categoryName,
-                totalProductsInStock,
-                totalValueInStock,
-                averagePriceInStock
+                unitsInStock,
+                valueInStock,
+                calculateAveragePrice(valueInStock, unitsInStock)
         );
     }
 
     @Override
     public List<InventoryMetricDTO> getInventoryMetrics() {
-        List<Product> products = new ArrayList<>();
-        productRepository.findAll().forEach(products::add);
-        Map<String, List<Product>> productsByCategory = products.stream().collect(Collectors.groupingBy(Product::getCategory));
-
-        List<InventoryMetricDTO> metrics = productsByCategory.entrySet().stream()
-                .map(entry -> calculateMetricsForProducts(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toCollection(ArrayList::new));
+        List<InventoryMetricDTO> metrics = new ArrayList<>();
+        long overallUnitsInStock = 0;
+        BigDecimal overallValueInStock = BigDecimal.ZERO;
 
+        for (CategoryInventory inventory : productRepository.findInventoryByCategory()) {
+            metrics.add(toInventoryMetric(inventory.category(), inventory.unitsInStock(), inventory.valueInStock()));
+            overallUnitsInStock += inventory.unitsInStock();
+            overallValueInStock = overallValueInStock.add(inventory.valueInStock());
+        }
 
-        InventoryMetricDTO overallMetric = calculateMetricsForProducts("Overall", products);
-        metrics.add(overallMetric);
+        metrics.add(toInventoryMetric("Overall", overallUnitsInStock, overallValueInStock));
 
         return metrics;
     }
@@ -0,0 +1,59 @@
+package inc.encora.inventory_manager.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationalLruCacheTest {
+
+  @Test
+  void testGet_WithSameGeneration_ShouldLoadOnce() {
+    GenerationalLruCache<String, Integer> cache = new GenerationalLruCache<>(10);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get("key", 1, loads::incrementAndGet);
+    int value = cache.get("key", 1, loads::incrementAndGet);
+
+    assertEquals(1, value);
+    assertEquals(new CacheStats(1, 1, 0, 1, 10), cache.stats());
+  }
+
+  @Test
+  void testGet_WithNewerGeneration_ShouldReload() {
+    GenerationalLruCache<String, Integer> cache = new GenerationalLruCache<>(10);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get("key", 1, loads::incrementAndGet);
+    int value = cache.get("key", 2, loads::incrementAndGet);
+
+    assertEquals(2, value);
+    assertEquals(0, cache.stats().hits());
+  }
+
+  @Test
+  void testGet_WhenFull_ShouldEvictLeastRecentlyUsed() {
+    GenerationalLruCache<String, String> cache = new GenerationalLruCache<>(2);
+    cache.get("a", 1, () -> "a");
+    cache.get("b", 1, () -> "b");
+    cache.get("a", 1, () -> "a");
+    cache.get("c", 1, () -> "c");
+
+    assertEquals("a", cache.get("a", 1, () -> "reloaded"));
+    assertEquals("reloaded", cache.get("b", 1, () -> "reloaded"));
+    assertEquals(2, cache.stats().evictions());
+  }
+
+  @Test
+  void testGet_WithZeroBound_ShouldNeverCache() {
+    GenerationalLruCache<String, Integer> cache = new GenerationalLruCache<>(0);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get("key", 1, loads::incrementAndGet);
+    cache.get("key", 1, loads::incrementAndGet);
+
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.stats().size());
+  }
+}
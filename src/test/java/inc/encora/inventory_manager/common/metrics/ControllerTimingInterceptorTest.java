@@ -0,0 +1,68 @@
+package inc.encora.inventory_manager.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControllerTimingInterceptorTest {
+
+  static class SampleController {
+    String stream() {
+      return "streaming";
+    }
+  }
+
+  private SimpleMeterRegistry meterRegistry;
+  private ControllerTimingInterceptor interceptor;
+  private HandlerMethod handler;
+
+  @BeforeEach
+  void setUp() throws NoSuchMethodException {
+    meterRegistry = new SimpleMeterRegistry();
+    interceptor = new ControllerTimingInterceptor(new LayerTimers(meterRegistry));
+    handler = new HandlerMethod(new SampleController(), SampleController.class.getDeclaredMethod("stream"));
+  }
+
+  private Timer timer() {
+    return meterRegistry.get(LayerTimers.METRIC_NAME)
+        .tags("layer", "controller", "class", "SampleController", "method", "stream")
+        .timer();
+  }
+
+  @Test
+  void testRequest_WhenCompleted_ShouldRecordOnce() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    interceptor.preHandle(request, response, handler);
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertEquals(1, timer().count());
+  }
+
+  @Test
+  void testAsyncRequest_ShouldRecordUntilHandOffAndIgnoreResumedDispatch() throws InterruptedException {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    interceptor.preHandle(request, response, handler);
+    interceptor.afterConcurrentHandlingStarted(request, response, handler);
+    // The stream stays open for a while before the request is dispatched again to complete it
+    Thread.sleep(200);
+    request.setDispatcherType(DispatcherType.ASYNC);
+    interceptor.preHandle(request, response, handler);
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertEquals(1, timer().count());
+    assertTrue(timer().totalTime(TimeUnit.MILLISECONDS) < 200);
+  }
+}
@@ -0,0 +1,57 @@
+package inc.encora.inventory_manager.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayerTimingAspectTest {
+
+  @Service
+  static class SampleService {
+    String succeed() {
+      return "ok";
+    }
+
+    void fail() {
+      throw new IllegalStateException("boom");
+    }
+  }
+
+  private SimpleMeterRegistry meterRegistry;
+  private SampleService service;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new SampleService());
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(new LayerTimingAspect(new LayerTimers(meterRegistry)));
+    service = proxyFactory.getProxy();
+  }
+
+  @Test
+  void testServiceCall_WhenSuccessful_ShouldRecordTimerWithoutException() {
+    service.succeed();
+    service.succeed();
+
+    Timer timer = meterRegistry.get(LayerTimers.METRIC_NAME)
+        .tags("layer", "service", "class", "SampleService", "method", "succeed", "exception", "none")
+        .timer();
+    assertEquals(2, timer.count());
+  }
+
+  @Test
+  void testServiceCall_WhenThrowing_ShouldRecordTimerTaggedWithException() {
+    assertThrows(IllegalStateException.class, () -> service.fail());
+
+    Timer timer = meterRegistry.get(LayerTimers.METRIC_NAME)
+        .tags("layer", "service", "method", "fail", "exception", "IllegalStateException")
+        .timer();
+    assertEquals(1, timer.count());
+  }
+}
@@ -0,0 +1,72 @@
+package inc.encora.inventory_manager.common.seed;
+
+import inc.encora.inventory_manager.product.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSeedTest {
+  private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+
+  private final ProductSeedOptions options = ProductSeedOptions.builder()
+      .size(50_000)
+      .seed(7L)
+      .referenceDate(REFERENCE_DATE)
+      .build();
+
+  @Test
+  void testGenerate_WithSameOptions_ShouldProduceSameCatalog() {
+    List<Product> first = ProductSeed.generate(options);
+    List<Product> second = ProductSeed.generate(options);
+
+    assertEquals(50_000, first.size());
+    assertEquals(first, second);
+  }
+
+  @Test
+  void testGenerate_WithDifferentSeed_ShouldProduceDifferentCatalog() {
+    List<Product> first = ProductSeed.generate(options);
+    List<Product> second = ProductSeed.generate(options.toBuilder().seed(8L).build());
+
+    assertNotEquals(first.getFirst().getId(), second.getFirst().getId());
+  }
+
+  @Test
+  void testGenerate_ShouldProduceUniqueIds() {
+    Set<String> ids = new HashSet<>();
+    ProductSeed.generate(options).forEach(product -> ids.add(product.getId()));
+
+    assertEquals(50_000, ids.size());
+  }
+
+  @Test
+  void testGenerate_ShouldSkewCategoriesTowardsTheFirstRanks() {
+    Map<String, Integer> counts = new HashMap<>();
+    ProductSeed.generate(options).forEach(product -> counts.merge(product.getCategory(), 1, Integer::sum));
+
+    assertEquals(8, counts.size());
+    // With an exponent of 1 the top category gets 1 / H(8) of the products and the last one an eighth of that
+    assertEquals(0.368, counts.get("Electronics") / 50_000.0, 0.01);
+    assertEquals(8, counts.get("Electronics") / (double) counts.get("Networking"), 0.6);
+  }
+
+  @Test
+  void testGenerate_ShouldHonourOutOfStockAndNearExpiryRatios() {
+    List<Product> products = ProductSeed.generate(options.toBuilder().outOfStockRatio(0.2).nearExpiryRatio(0.3).build());
+
+    long outOfStock = products.stream().filter(product -> product.getQuantityInStock() == 0).count();
+    long nearExpiry = products.stream()
+        .filter(product -> !product.getExpirationDate().isAfter(REFERENCE_DATE.plusDays(ProductSeed.NEAR_EXPIRY_DAYS)))
+        .count();
+
+    assertEquals(0.2, outOfStock / 50_000.0, 0.01);
+    assertEquals(0.3, nearExpiry / 50_000.0, 0.01);
+  }
+}
@@ -0,0 +1,43 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.common.exceptions.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagUtilTest {
+
+  @Test
+  void testOf_ShouldQuoteVersion() {
+    assertEquals("\"42\"", ETagUtil.of(42));
+  }
+
+  @Test
+  void testParseIfMatch_WithStrongTag_ShouldReturnVersion() {
+    assertEquals(Set.of(42L), ETagUtil.parseIfMatch("\"42\""));
+  }
+
+  @Test
+  void testParseIfMatch_WithTagList_ShouldReturnEveryStrongVersion() {
+    assertEquals(Set.of(41L, 42L), ETagUtil.parseIfMatch("\"41\", W/\"40\", \"abc\", \"42\""));
+  }
+
+  @Test
+  void testParseIfMatch_WithWildcardInList_ShouldAcceptAnyVersion() {
+    assertNull(ETagUtil.parseIfMatch("\"41\", *"));
+  }
+
+  @Test
+  void testParseIfMatch_WithoutHeaderOrWithWildcard_ShouldAcceptAnyVersion() {
+    assertNull(ETagUtil.parseIfMatch(null));
+    assertNull(ETagUtil.parseIfMatch("*"));
+  }
+
+  @Test
+  void testParseIfMatch_WithWeakOrForeignTag_ShouldThrowPreconditionFailed() {
+    assertThrows(PreconditionFailedException.class, () -> ETagUtil.parseIfMatch("W/\"42\""));
+    assertThrows(PreconditionFailedException.class, () -> ETagUtil.parseIfMatch("\"abc\""));
+  }
+}
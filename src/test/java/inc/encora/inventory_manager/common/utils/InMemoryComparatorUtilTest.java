@@ -0,0 +1,79 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.product.models.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryComparatorUtilTest {
+
+  private final Product cheap = Product.builder()
+      .name("Cable").unitPrice(new BigDecimal("5.00")).quantityInStock(3)
+      .expirationDate(LocalDate.of(2030, 1, 1)).build();
+  private final Product expensive = Product.builder()
+      .name("Laptop").unitPrice(new BigDecimal("999.99")).quantityInStock(1)
+      .expirationDate(LocalDate.of(2027, 6, 15)).build();
+  private final Product unpriced = Product.builder()
+      .name("Mystery").unitPrice(null).quantityInStock(null).expirationDate(null).build();
+
+  private List<Product> sortedBy(String property, Sort.Direction direction) {
+    List<Product> products = new ArrayList<>(Arrays.asList(unpriced, expensive, cheap));
+    products.sort(InMemoryComparatorUtil.getPropertyComparator(Product.class, property, direction));
+    return products;
+  }
+
+  @Test
+  void testGetPropertyComparator_Ascending_ShouldOrderValuesWithNullsLast() {
+    assertEquals(List.of(cheap, expensive, unpriced), sortedBy("unitPrice", Sort.Direction.ASC));
+    assertEquals(List.of(expensive, cheap, unpriced), sortedBy("quantityInStock", Sort.Direction.ASC));
+    assertEquals(List.of(expensive, cheap, unpriced), sortedBy("expirationDate", Sort.Direction.ASC));
+    assertEquals(List.of(cheap, expensive, unpriced), sortedBy("name", Sort.Direction.ASC));
+  }
+
+  @Test
+  void testGetPropertyComparator_Descending_ShouldReverseOrderWithNullsFirst() {
+    assertEquals(List.of(unpriced, expensive, cheap), sortedBy("unitPrice", Sort.Direction.DESC));
+    assertEquals(List.of(unpriced, cheap, expensive), sortedBy("expirationDate", Sort.Direction.DESC));
+  }
+
+  @Test
+  void testGetPropertyComparator_WithLargestValues_ShouldStillOrderNullsLast() {
+    Product largest = Product.builder()
+        .name("Pallet").quantityInStock(Integer.MAX_VALUE).expirationDate(LocalDate.MAX).build();
+    Product smallest = Product.builder()
+        .name("Sample").quantityInStock(Integer.MIN_VALUE).expirationDate(LocalDate.MIN).build();
+
+    for (String property : List.of("quantityInStock", "expirationDate")) {
+      List<Product> products = new ArrayList<>(Arrays.asList(unpriced, largest, smallest));
+      products.sort(InMemoryComparatorUtil.getPropertyComparator(Product.class, property));
+      assertEquals(List.of(smallest, largest, unpriced), products, property);
+    }
+  }
+
+  @Test
+  void testGetPropertyComparator_ShouldCacheComparatorPerPropertyAndDirection() {
+    Comparator<Product> first = InMemoryComparatorUtil.getPropertyComparator(Product.class, "name", Sort.Direction.ASC);
+    Comparator<Product> second = InMemoryComparatorUtil.getPropertyComparator(Product.class, "name");
+    Comparator<Product> descending = InMemoryComparatorUtil.getPropertyComparator(Product.class, "name", Sort.Direction.DESC);
+
+    assertSame(first, second);
+    assertNotSame(first, descending);
+  }
+
+  @Test
+  void testGetPropertyComparator_WithUnknownProperty_ShouldThrowIllegalArgumentException() {
+    IllegalArgumentException exception = assertThrows(
+        IllegalArgumentException.class,
+        () -> InMemoryComparatorUtil.getPropertyComparator(Product.class, "unknown"));
+
+    assertEquals("Unsupported sort property", exception.getMessage());
+  }
+}
@@ -0,0 +1,86 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.product.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRepositoryUtilTest {
+
+  private List<Product> products;
+
+  @BeforeEach
+  void setUp() {
+    Random random = new Random(42);
+    products = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      products.add(Product.builder()
+          .name("Product " + i)
+          .category("Category " + random.nextInt(5))
+          .unitPrice(BigDecimal.valueOf(random.nextInt(20)))
+          .quantityInStock(random.nextInt(10))
+          .build());
+    }
+  }
+
+  private List<Product> fullySorted(Comparator<Product> comparator) {
+    List<Product> sorted = new ArrayList<>(products);
+    sorted.sort(comparator);
+    return sorted;
+  }
+
+  @Test
+  void testApplyPaginationAndSorting_FirstPage_ShouldMatchFullSort() {
+    Page<Product> page = InMemoryRepositoryUtil.applyPaginationAndSorting(
+        products, PageRequest.of(0, 10, Sort.by("unitPrice")), Product.class);
+
+    List<Product> expected = fullySorted(Comparator.comparing(Product::getUnitPrice)).subList(0, 10);
+    assertEquals(expected, page.getContent());
+    assertEquals(500, page.getTotalElements());
+  }
+
+  @Test
+  void testApplyPaginationAndSorting_ConsecutivePagesWithTies_ShouldMatchFullSort() {
+    Comparator<Product> comparator = Comparator.comparing(Product::getCategory)
+        .thenComparing(Comparator.comparing(Product::getQuantityInStock).reversed());
+    List<Product> expected = fullySorted(comparator);
+    Sort sort = Sort.by(Sort.Order.asc("category"), Sort.Order.desc("quantityInStock"));
+
+    for (int pageNumber = 0; pageNumber < 50; pageNumber++) {
+      Page<Product> page = InMemoryRepositoryUtil.applyPaginationAndSorting(
+          products, PageRequest.of(pageNumber, 10, sort), Product.class);
+
+      assertEquals(expected.subList(pageNumber * 10, pageNumber * 10 + 10), page.getContent());
+    }
+  }
+
+  @Test
+  void testApplyPaginationAndSorting_PageBeyondData_ShouldReturnEmptyContent() {
+    Page<Product> page = InMemoryRepositoryUtil.applyPaginationAndSorting(
+        products, PageRequest.of(100, 10, Sort.by("name")), Product.class);
+
+    assertTrue(page.getContent().isEmpty());
+    assertEquals(500, page.getTotalElements());
+  }
+
+  @Test
+  void testSelectSmallest_WhenKExceedsSize_ShouldReturnAllElementsSorted() {
+    List<Product> few = products.subList(0, 5);
+
+    List<Product> selected = InMemoryRepositoryUtil.selectSmallest(few, Comparator.comparing(Product::getName), 10);
+
+    List<Product> expected = new ArrayList<>(few);
+    expected.sort(Comparator.comparing(Product::getName));
+    assertEquals(expected, selected);
+  }
+}
@@ -0,0 +1,49 @@
+package inc.encora.inventory_manager.common.utils;
+
+import inc.encora.inventory_manager.common.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrollPositionCodecTest {
+
+  @Test
+  void testDecode_WithEncodedPosition_ShouldRestoreKeysAsStrings() {
+    Map<String, Object> keys = new LinkedHashMap<>();
+    keys.put("unitPrice", new BigDecimal("19.99"));
+    keys.put("id", "550e8400");
+
+    KeysetScrollPosition position = ScrollPositionCodec.decode(ScrollPositionCodec.encode(ScrollPosition.forward(keys)));
+
+    assertEquals(Map.of("unitPrice", "19.99", "id", "550e8400"), position.getKeys());
+  }
+
+  @Test
+  void testDecode_WithNullKeyValue_ShouldKeepNull() {
+    Map<String, Object> keys = new LinkedHashMap<>();
+    keys.put("expirationDate", null);
+    keys.put("id", "550e8400");
+
+    KeysetScrollPosition position = ScrollPositionCodec.decode(ScrollPositionCodec.encode(ScrollPosition.forward(keys)));
+
+    assertTrue(position.getKeys().containsKey("expirationDate"));
+    assertNull(position.getKeys().get("expirationDate"));
+  }
+
+  @Test
+  void testDecode_WithBlankCursor_ShouldReturnInitialPosition() {
+    assertTrue(ScrollPositionCodec.decode("").isInitial());
+  }
+
+  @Test
+  void testDecode_WithMalformedCursor_ShouldThrowBadRequest() {
+    assertThrows(BadRequestException.class, () -> ScrollPositionCodec.decode("not a cursor!"));
+    assertThrows(BadRequestException.class, () -> ScrollPositionCodec.decode("bm90IGpzb24"));
+  }
+}
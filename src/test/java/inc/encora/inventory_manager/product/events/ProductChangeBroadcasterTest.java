@@ -0,0 +1,137 @@
+package inc.encora.inventory_manager.product.events;
+
+import inc.encora.inventory_manager.product.constants.ProductChangeType;
+import inc.encora.inventory_manager.product.dtos.ProductChangeEventDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeBroadcasterTest {
+
+  private static ProductChangeEventDTO event(String productId) {
+    return new ProductChangeEventDTO(ProductChangeType.STOCK_CHANGED, productId, null);
+  }
+
+  @Test
+  void testPublish_ShouldDeliverEventsInOrderWithIncreasingIds() throws Exception {
+    ProductChangeBroadcaster broadcaster = new ProductChangeBroadcaster(16, 60_000, 60_000);
+    RecordingSink sink = new RecordingSink();
+    broadcaster.register(sink);
+
+    broadcaster.publish(event("a"));
+    broadcaster.publish(event("b"));
+    broadcaster.publish(event("c"));
+
+    assertEquals("a", sink.next());
+    assertEquals("b", sink.next());
+    assertEquals("c", sink.next());
+    assertEquals(List.of(1L, 2L, 3L), sink.ids);
+    assertEquals(1, broadcaster.getSubscriberCount());
+  }
+
+  @Test
+  void testPublish_WhenSubscriberFallsBehind_ShouldDropItWithoutBlocking() throws Exception {
+    ProductChangeBroadcaster broadcaster = new ProductChangeBroadcaster(2, 60_000, 60_000);
+    BlockingSink slow = new BlockingSink();
+    RecordingSink fast = new RecordingSink();
+    broadcaster.register(slow);
+    broadcaster.register(fast);
+
+    broadcaster.publish(event("first"));
+    assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+    assertEquals("first", fast.next());
+    // The slow subscriber buffers two events, the third one overflows it
+    for (int i = 0; i < 3; i++) {
+      broadcaster.publish(event("next-" + i));
+      assertEquals("next-" + i, fast.next());
+    }
+
+    assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+    assertEquals(1, broadcaster.getDroppedSubscriberCount());
+    assertEquals(1, broadcaster.getSubscriberCount());
+  }
+
+  @Test
+  void testHeartbeat_WhenSinkFails_ShouldRemoveSubscriber() throws Exception {
+    ProductChangeBroadcaster broadcaster = new ProductChangeBroadcaster(4, 10, 60_000);
+    CountDownLatch closed = new CountDownLatch(1);
+    broadcaster.register(new ProductChangeBroadcaster.EventSink() {
+      @Override
+      public void send(long id, ProductChangeEventDTO event) {
+      }
+
+      @Override
+      public void heartbeat() throws IOException {
+        throw new IOException("client went away");
+      }
+
+      @Override
+      public void close() {
+        closed.countDown();
+      }
+    });
+
+    assertTrue(closed.await(5, TimeUnit.SECONDS));
+    assertEquals(0, broadcaster.getSubscriberCount());
+    assertEquals(0, broadcaster.getDroppedSubscriberCount());
+  }
+
+  private static class RecordingSink implements ProductChangeBroadcaster.EventSink {
+    private final List<Long> ids = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<ProductChangeEventDTO> events = new LinkedBlockingQueue<>();
+
+    String next() throws InterruptedException {
+      ProductChangeEventDTO event = events.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event);
+      return event.getProductId();
+    }
+
+    @Override
+    public void send(long id, ProductChangeEventDTO event) {
+      ids.add(id);
+      events.add(event);
+    }
+
+    @Override
+    public void heartbeat() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  // Stands in for a client that stopped reading: the first send never returns until interrupted
+  private static class BlockingSink implements ProductChangeBroadcaster.EventSink {
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    @Override
+    public void send(long id, ProductChangeEventDTO event) throws IOException {
+      sending.countDown();
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException();
+      }
+    }
+
+    @Override
+    public void heartbeat() {
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package inc.encora.inventory_manager.product.metrics;
+
+import inc.encora.inventory_manager.common.metrics.LayerTimers;
+import inc.encora.inventory_manager.common.metrics.LayerTimingAspect;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductRepositoryMetricsTest {
+
+  @Test
+  void testGauges_WithTimedRepository_ShouldNotRecordScrapesAsRepositoryCalls() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new LocalProductRepository());
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(new LayerTimingAspect(new LayerTimers(meterRegistry)));
+    ProductRepository repository = proxyFactory.getProxy();
+    repository.save(Product.builder().name("Gaming Mouse X Pro").category("Peripherals").build());
+    meterRegistry.clear();
+
+    new ProductRepositoryMetrics(repository).bindTo(meterRegistry);
+
+    assertEquals(1.0, meterRegistry.get("inventory.repository.products").gauge().value());
+    assertTrue(meterRegistry.find(LayerTimers.METRIC_NAME).timers().isEmpty());
+  }
+}
@@ -1,21 +1,33 @@
 package inc.encora.inventory_manager.product.repositories.impl;
 
+import inc.encora.inventory_manager.common.exceptions.BadRequestException;
+import inc.encora.inventory_manager.common.utils.ScrollPositionCodec;
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
 import inc.encora.inventory_manager.product.models.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -160,6 +172,19 @@ class LocalProductRepositoryTest {
     assertEquals(saved1.getId(), foundList.get(0).getId());
   }
 
+  @Test
+  void testFindAllById_ShouldKeepRequestedOrderIncludingRepeatedIds() {
+    Product saved1 = repository.save(testProduct1);
+    Product saved2 = repository.save(testProduct2);
+    Product saved3 = repository.save(testProduct3);
+
+    List<Product> found = repository.findAllById(
+        List.of(saved3.getId(), "non-existent-id", saved1.getId(), saved3.getId(), saved2.getId()));
+
+    assertEquals(List.of(saved3.getId(), saved1.getId(), saved3.getId(), saved2.getId()),
+        found.stream().map(Product::getId).toList());
+  }
+
   @Test
   void testCount_ShouldReturnCorrectCount() {
     assertEquals(0, repository.count());
@@ -179,6 +204,17 @@ class LocalProductRepositoryTest {
     assertFalse(repository.existsById(savedProduct.getId()));
   }
 
+  @Test
+  void testRemoveById_ShouldReturnRemovedProductOnlyOnce() {
+    Product savedProduct = repository.save(testProduct1);
+
+    Optional<Product> removed = repository.removeById(savedProduct.getId());
+
+    assertEquals(Optional.of(savedProduct), removed);
+    assertFalse(repository.existsById(savedProduct.getId()));
+    assertTrue(repository.removeById(savedProduct.getId()).isEmpty());
+  }
+
   @Test
   void testDelete_ShouldRemoveProduct() {
     Product savedProduct = repository.save(testProduct1);
@@ -461,4 +497,583 @@ class LocalProductRepositoryTest {
     assertEquals(new BigDecimal("1199.99"), updatedProduct.getUnitPrice());
     assertEquals(1, repository.count());
   }
+
+  @Test
+  void testUpdateById_WhenProductExists_ShouldApplyUpdaterAndReturnUpdatedCopy() {
+    Product savedProduct = repository.save(testProduct1);
+    Optional<Product> updated = repository.updateById(savedProduct.getId(), product -> product.setQuantityInStock(42));
+
+    assertTrue(updated.isPresent());
+    assertEquals(42, updated.get().getQuantityInStock());
+    assertEquals(42, repository.findById(savedProduct.getId()).orElseThrow().getQuantityInStock());
+  }
+
+  @Test
+  void testUpdateById_WhenProductDoesNotExist_ShouldReturnEmpty() {
+    Optional<Product> updated = repository.updateById("non-existent-id", product -> product.setQuantityInStock(42));
+
+    assertFalse(updated.isPresent());
+    assertEquals(0, repository.count());
+  }
+
+  @Test
+  void testFindById_ShouldReturnCopyIsolatedFromStoredProduct() {
+    Product savedProduct = repository.save(testProduct1);
+    Product found = repository.findById(savedProduct.getId()).orElseThrow();
+    found.setQuantityInStock(999);
+    savedProduct.setQuantityInStock(555);
+
+    assertEquals(10, repository.findById(savedProduct.getId()).orElseThrow().getQuantityInStock());
+  }
+
+  @Test
+  void testUpdateById_WithConcurrentWriters_ShouldNotLoseUpdates() throws Exception {
+    Product savedProduct = repository.save(testProduct2);
+    int threads = 8;
+    int incrementsPerThread = 1_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < incrementsPerThread; j++) {
+          repository.updateById(savedProduct.getId(),
+              product -> product.setQuantityInStock(product.getQuantityInStock() + 1));
+          repository.findByNameOrCategoryOrQuantityInStock(PageRequest.of(0, 10), "Test", null, null);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    assertEquals(threads * incrementsPerThread,
+        repository.findById(savedProduct.getId()).orElseThrow().getQuantityInStock());
+  }
+
+  @Test
+  void testFindAllCategories_ShouldReturnUniqueCategoriesIgnoringCase() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+    repository.save(Product.builder().name("Test Cable").category("ELECTRONICS").quantityInStock(1).build());
+
+    List<String> categories = repository.findAllCategories();
+
+    assertEquals(2, categories.size());
+    assertTrue(categories.contains("Electronics"));
+    assertTrue(categories.contains("Peripherals"));
+  }
+
+  @Test
+  void testFindAllCategories_WhenLastProductOfCategoryRemoved_ShouldDropCategory() {
+    Product saved1 = repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.deleteById(saved1.getId());
+
+    assertEquals(List.of("Peripherals"), repository.findAllCategories());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_AfterCategoryChange_ShouldUseNewCategory() {
+    Product saved1 = repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.updateById(saved1.getId(), product -> product.setCategory("Peripherals"));
+    Pageable pageable = PageRequest.of(0, 10);
+
+    Page<Product> peripherals = repository.findByNameOrCategoryOrQuantityInStock(
+        pageable, null, Arrays.asList("peripherals"), null);
+    Page<Product> electronics = repository.findByNameOrCategoryOrQuantityInStock(
+        pageable, null, Arrays.asList("Electronics"), null);
+
+    assertEquals(2, peripherals.getTotalElements());
+    assertEquals(0, electronics.getTotalElements());
+    assertEquals(List.of("Peripherals"), repository.findAllCategories());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_WithSeveralCategories_ShouldReturnUnionWithoutDuplicates() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+    Pageable pageable = PageRequest.of(0, 10);
+
+    Page<Product> results = repository.findByNameOrCategoryOrQuantityInStock(
+        pageable, null, Arrays.asList("Electronics", "Peripherals", "ELECTRONICS"), null);
+
+    assertEquals(3, results.getTotalElements());
+  }
+
+  @Test
+  void testStreamByNameOrCategoryOrQuantityInStock_WithKnownAndUnknownCategories_ShouldMatchKnownOnly() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    List<Product> results = repository.streamByNameOrCategoryOrQuantityInStock(
+        "test", Arrays.asList("PERIPHERALS", "Garden"), AvailabilityStatus.IN_STOCK).toList();
+    List<Product> unknown = repository.streamByNameOrCategoryOrQuantityInStock(
+        null, Arrays.asList("Garden"), null).toList();
+
+    assertEquals(List.of("Test Keyboard"), results.stream().map(Product::getName).toList());
+    assertTrue(unknown.isEmpty());
+  }
+
+  @Test
+  void testDeleteAll_ShouldClearCategories() {
+    repository.save(testProduct1);
+    repository.deleteAll();
+
+    assertTrue(repository.findAllCategories().isEmpty());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_WithShortNameQuery_ShouldReturnMatchingProducts() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+    Pageable pageable = PageRequest.of(0, 10);
+
+    Page<Product> results = repository.findByNameOrCategoryOrQuantityInStock(pageable, "mo", null, null);
+
+    assertEquals(1, results.getTotalElements());
+    assertEquals("Test Mouse", results.getContent().get(0).getName());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_WithQuerySpanningWords_ShouldReturnMatchingProducts() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    Pageable pageable = PageRequest.of(0, 10);
+
+    Page<Product> results = repository.findByNameOrCategoryOrQuantityInStock(pageable, "ST LAP", null, null);
+
+    assertEquals(1, results.getTotalElements());
+    assertEquals("Test Laptop", results.getContent().get(0).getName());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_WithGramsPresentButNoSubstringMatch_ShouldReturnEmpty() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    Pageable pageable = PageRequest.of(0, 10);
+
+    // Every trigram of "test laptop mouse" exists across the two names, but no single name contains it
+    Page<Product> results = repository.findByNameOrCategoryOrQuantityInStock(pageable, "Laptop Mouse", null, null);
+
+    assertEquals(0, results.getTotalElements());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_AfterRename_ShouldMatchNewNameOnly() {
+    Product saved1 = repository.save(testProduct1);
+    repository.updateById(saved1.getId(), product -> product.setName("Test Notebook"));
+    Pageable pageable = PageRequest.of(0, 10);
+
+    assertEquals(0, repository.findByNameOrCategoryOrQuantityInStock(pageable, "laptop", null, null).getTotalElements());
+    assertEquals(1, repository.findByNameOrCategoryOrQuantityInStock(pageable, "notebook", null, null).getTotalElements());
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_AfterDelete_ShouldNotMatchRemovedProduct() {
+    Product saved1 = repository.save(testProduct1);
+    repository.deleteById(saved1.getId());
+    Pageable pageable = PageRequest.of(0, 10);
+
+    assertEquals(0, repository.findByNameOrCategoryOrQuantityInStock(pageable, "laptop", null, null).getTotalElements());
+  }
+
+  private List<String> names(Page<Product> page) {
+    return page.getContent().stream().map(Product::getName).toList();
+  }
+
+  @Test
+  void testFindAllWithPageable_SortedByIndexedPropertyDescending_ShouldReturnOrderedPage() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    Page<Product> page = repository.findAll(PageRequest.of(0, 2, Sort.by("unitPrice").descending()));
+
+    assertEquals(List.of("Test Laptop", "Test Keyboard"), names(page));
+    assertEquals(3, page.getTotalElements());
+  }
+
+  @Test
+  void testFindAllWithPageable_AfterUpdatingSortedProperty_ShouldReflectNewOrder() {
+    Product saved1 = repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+    repository.updateById(saved1.getId(), product -> product.setQuantityInStock(100));
+    repository.updateById(saved1.getId(), product -> product.setName("Test Zebra"));
+
+    Page<Product> byQuantity = repository.findAll(PageRequest.of(0, 3, Sort.by("quantityInStock")));
+    Page<Product> byName = repository.findAll(PageRequest.of(0, 3, Sort.by("name")));
+
+    assertEquals(List.of("Test Mouse", "Test Keyboard", "Test Zebra"), names(byQuantity));
+    assertEquals(List.of("Test Keyboard", "Test Mouse", "Test Zebra"), names(byName));
+    assertEquals(100, byName.getContent().get(2).getQuantityInStock());
+  }
+
+  @Test
+  void testFindAllWithPageable_AfterDelete_ShouldSkipRemovedProduct() {
+    Product saved1 = repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+    repository.deleteById(saved1.getId());
+
+    Page<Product> page = repository.findAll(PageRequest.of(0, 10, Sort.by("expirationDate")));
+
+    assertEquals(List.of("Test Mouse", "Test Keyboard"), names(page));
+    assertEquals(2, page.getTotalElements());
+  }
+
+  @Test
+  void testFindAllWithPageable_SortedByMultipleProperties_ShouldReturnOrderedPage() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    Page<Product> page = repository.findAll(PageRequest.of(0, 3,
+        Sort.by(Sort.Order.asc("category"), Sort.Order.desc("quantityInStock"))));
+
+    assertEquals(List.of("Test Laptop", "Test Keyboard", "Test Mouse"), names(page));
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_WalkingSortedIndex_ShouldPageAndCountMatches() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    Page<Product> firstPage = repository.findByNameOrCategoryOrQuantityInStock(
+        PageRequest.of(0, 1, Sort.by("unitPrice")), null, null, AvailabilityStatus.IN_STOCK);
+    Page<Product> secondPage = repository.findByNameOrCategoryOrQuantityInStock(
+        PageRequest.of(1, 1, Sort.by("unitPrice")), null, null, AvailabilityStatus.IN_STOCK);
+
+    assertEquals(List.of("Test Keyboard"), names(firstPage));
+    assertEquals(List.of("Test Laptop"), names(secondPage));
+    assertEquals(2, firstPage.getTotalElements());
+    assertEquals(2, secondPage.getTotalPages());
+  }
+
+  private CategoryInventory inventoryOf(String category) {
+    return repository.findInventoryByCategory().stream()
+        .filter(inventory -> category.equals(inventory.category()))
+        .findFirst()
+        .orElse(null);
+  }
+
+  @Test
+  void testFindInventoryByCategory_ShouldAggregatePerCategory() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    CategoryInventory peripherals = inventoryOf("Peripherals");
+
+    assertEquals(2, repository.findInventoryByCategory().size());
+    assertEquals(2, peripherals.productCount());
+    assertEquals(25, peripherals.unitsInStock());
+    assertEquals(0, new BigDecimal("1999.75").compareTo(peripherals.valueInStock()));
+  }
+
+  @Test
+  void testFindInventoryByCategory_ShouldFollowUpdatesAndDeletes() {
+    Product saved1 = repository.save(testProduct1);
+    Product saved3 = repository.save(testProduct3);
+    repository.updateById(saved1.getId(), product -> product.setQuantityInStock(2));
+    repository.updateById(saved3.getId(), product -> product.setCategory("Electronics"));
+
+    CategoryInventory electronics = inventoryOf("Electronics");
+    assertEquals(2, electronics.productCount());
+    assertEquals(27, electronics.unitsInStock());
+    assertEquals(0, new BigDecimal("3999.73").compareTo(electronics.valueInStock()));
+    assertNull(inventoryOf("Peripherals"));
+
+    repository.deleteById(saved1.getId());
+    electronics = inventoryOf("Electronics");
+    assertEquals(1, electronics.productCount());
+    assertEquals(25, electronics.unitsInStock());
+
+    repository.deleteAll();
+    assertTrue(repository.findInventoryByCategory().isEmpty());
+  }
+
+  @Test
+  void testFindInventoryByCategory_WithConcurrentStockUpdates_ShouldStayConsistent() throws Exception {
+    Product saved1 = repository.save(testProduct1);
+    Product saved2 = repository.save(testProduct2);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++) {
+      String id = (i % 2 == 0) ? saved1.getId() : saved2.getId();
+      futures.add(executor.submit(() -> {
+        for (int j = 0; j < 500; j++) {
+          repository.updateById(id, product -> product.setQuantityInStock(product.getQuantityInStock() + 1));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    assertEquals(1010, inventoryOf("Electronics").unitsInStock());
+    assertEquals(1000, inventoryOf("Peripherals").unitsInStock());
+  }
+
+  // Round-trips every position through the opaque cursor, as clients do
+  private KeysetScrollPosition nextPosition(Window<Product> window) {
+    return ScrollPositionCodec.decode(ScrollPositionCodec.encode((KeysetScrollPosition) window.positionAt(window.size() - 1)));
+  }
+
+  @Test
+  void testFindAllWithScrollPosition_ShouldVisitEveryProductOnceInSortOrder() {
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      repository.save(Product.builder()
+          .name("Product " + i)
+          .category("Electronics")
+          .unitPrice(BigDecimal.valueOf(i % 4))
+          .quantityInStock(i)
+          .build());
+    }
+    for (Product product : repository.findAll(PageRequest.of(0, 25, Sort.by("unitPrice").descending()))) {
+      expected.add(product.getId());
+    }
+
+    List<String> visited = new ArrayList<>();
+    KeysetScrollPosition position = ScrollPosition.keyset();
+    Window<Product> window;
+    do {
+      window = repository.findAll(position, Sort.by("unitPrice").descending(), 4);
+      window.forEach(product -> visited.add(product.getId()));
+      position = window.isEmpty() ? position : nextPosition(window);
+    } while (window.hasNext());
+
+    assertEquals(expected, visited);
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStockWithScrollPosition_ShouldOnlyReturnMatches() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    Window<Product> first = repository.findByNameOrCategoryOrQuantityInStock(
+        ScrollPosition.keyset(), Sort.unsorted(), 1, null, null, AvailabilityStatus.IN_STOCK);
+    Window<Product> second = repository.findByNameOrCategoryOrQuantityInStock(
+        nextPosition(first), Sort.unsorted(), 1, null, null, AvailabilityStatus.IN_STOCK);
+
+    assertEquals("Test Keyboard", first.getContent().getFirst().getName());
+    assertTrue(first.hasNext());
+    assertEquals("Test Laptop", second.getContent().getFirst().getName());
+    assertFalse(second.hasNext());
+  }
+
+  @Test
+  void testFindAllWithScrollPosition_WithInsertBeforeCursor_ShouldNotRepeatOrSkip() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    Window<Product> first = repository.findAll(ScrollPosition.keyset(), Sort.by("name"), 2);
+    repository.save(Product.builder().name("Test Apple").category("Food").unitPrice(BigDecimal.ONE).quantityInStock(1).build());
+    Window<Product> second = repository.findAll(nextPosition(first), Sort.by("name"), 2);
+
+    assertEquals(List.of("Test Keyboard", "Test Laptop"), first.getContent().stream().map(Product::getName).toList());
+    assertEquals(List.of("Test Mouse"), second.getContent().stream().map(Product::getName).toList());
+  }
+
+  @Test
+  void testFindAllWithScrollPosition_WithCursorForAnotherSort_ShouldThrowBadRequest() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+
+    Window<Product> first = repository.findAll(ScrollPosition.keyset(), Sort.by("name"), 1);
+    KeysetScrollPosition position = nextPosition(first);
+
+    assertThrows(BadRequestException.class, () -> repository.findAll(position, Sort.by("unitPrice"), 1));
+    assertThrows(BadRequestException.class, () -> repository.findAll(ScrollPosition.keyset(), Sort.by("createdAt"), 1));
+  }
+
+  @Test
+  void testStreamByNameOrCategoryOrQuantityInStock_WithoutFilters_ShouldStreamEveryProduct() {
+    repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    List<String> names = repository.streamByNameOrCategoryOrQuantityInStock(null, null, AvailabilityStatus.ALL)
+        .map(Product::getName)
+        .sorted()
+        .toList();
+
+    assertEquals(List.of("Test Keyboard", "Test Laptop", "Test Mouse"), names);
+  }
+
+  @Test
+  void testStreamByNameOrCategoryOrQuantityInStock_WithFilters_ShouldStreamMatchingCopies() {
+    Product saved1 = repository.save(testProduct1);
+    repository.save(testProduct2);
+    repository.save(testProduct3);
+
+    List<Product> streamed = repository.streamByNameOrCategoryOrQuantityInStock(
+        "key", List.of("peripherals"), AvailabilityStatus.IN_STOCK).toList();
+    repository.streamByNameOrCategoryOrQuantityInStock("laptop", null, null)
+        .forEach(product -> product.setName("Changed"));
+
+    assertEquals(List.of("Test Keyboard"), streamed.stream().map(Product::getName).toList());
+    assertEquals("Test Laptop", repository.findById(saved1.getId()).orElseThrow().getName());
+  }
+
+  @Test
+  void testSaveAll_WithLargeBatch_ShouldStoreAndIndexEveryProduct() {
+    List<Product> batch = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      batch.add(Product.builder()
+          .name("Batch Product " + i)
+          .category((i % 2 == 0) ? "Electronics" : "Audio")
+          .unitPrice(BigDecimal.ONE)
+          .quantityInStock(2)
+          .build());
+    }
+
+    repository.saveAll(batch);
+
+    assertEquals(500, repository.count());
+    assertEquals(250, inventoryOf("Audio").productCount());
+    assertEquals(1, repository.findByNameOrCategoryOrQuantityInStock(
+        PageRequest.of(0, 10), "product 499", null, null).getTotalElements());
+  }
+
+  @Test
+  void testUpdateById_WhenUpdaterThrows_ShouldKeepStoredProductAndReleaseLock() {
+    Product saved = repository.save(testProduct1);
+
+    assertThrows(IllegalStateException.class, () -> repository.updateById(saved.getId(), product -> {
+      product.setQuantityInStock(-1);
+      throw new IllegalStateException("rejected");
+    }));
+    repository.updateById(saved.getId(), product -> product.setQuantityInStock(3));
+
+    assertEquals(3, repository.findById(saved.getId()).orElseThrow().getQuantityInStock());
+    assertEquals(3, inventoryOf("Electronics").unitsInStock());
+  }
+
+  @Test
+  void testUpdateAllById_WhenUpdaterCommits_ShouldStoreChangedProducts() {
+    Product saved1 = repository.save(testProduct1);
+    Product saved2 = repository.save(testProduct2);
+
+    boolean committed = repository.updateAllById(List.of(saved1.getId(), saved2.getId(), "missing-id"), productsById -> {
+      assertEquals(2, productsById.size());
+      productsById.get(saved1.getId()).setQuantityInStock(4);
+      productsById.get(saved2.getId()).setCategory("Electronics");
+      return true;
+    });
+
+    assertTrue(committed);
+    assertEquals(4, repository.findById(saved1.getId()).orElseThrow().getQuantityInStock());
+    assertEquals(List.of("Electronics"), repository.findAllCategories());
+    assertEquals(4, inventoryOf("Electronics").unitsInStock());
+  }
+
+  @Test
+  void testUpdateAllById_WhenUpdaterDiscards_ShouldKeepEveryProduct() {
+    Product saved1 = repository.save(testProduct1);
+    Product saved2 = repository.save(testProduct2);
+
+    boolean committed = repository.updateAllById(List.of(saved1.getId(), saved2.getId()), productsById -> {
+      productsById.get(saved1.getId()).setQuantityInStock(4);
+      return false;
+    });
+
+    assertFalse(committed);
+    assertEquals(10, repository.findById(saved1.getId()).orElseThrow().getQuantityInStock());
+    assertEquals(10, inventoryOf("Electronics").unitsInStock());
+  }
+
+  @Test
+  void testUpdateAllById_WithOverlappingConcurrentBatches_ShouldNotDeadlockOrLoseUpdates() throws Exception {
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      ids.add(repository.save(Product.builder().name("Product " + i).category("Electronics").quantityInStock(0).build()).getId());
+    }
+
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      List<String> batchIds = new ArrayList<>(ids);
+      Collections.rotate(batchIds, t * 5);
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 200; i++) {
+          repository.updateAllById(batchIds, productsById -> {
+            productsById.values().forEach(product -> product.setQuantityInStock(product.getQuantityInStock() + 1));
+            return true;
+          });
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    for (String id : ids) {
+      assertEquals(threads * 200, repository.findById(id).orElseThrow().getQuantityInStock());
+    }
+  }
+
+  @Test
+  void testSave_ShouldStartVersionAtOneAndIncrementOnEveryWrite() {
+    Product saved = repository.save(testProduct1);
+    assertEquals(1, saved.getVersion());
+
+    Product updated = repository.updateById(saved.getId(), product -> product.setQuantityInStock(3)).orElseThrow();
+    repository.updateAllById(List.of(saved.getId()), productsById -> {
+      productsById.get(saved.getId()).setQuantityInStock(4);
+      return true;
+    });
+
+    assertEquals(2, updated.getVersion());
+    assertEquals(3, repository.findById(saved.getId()).orElseThrow().getVersion());
+  }
+
+  @Test
+  void testFindGeneration_ShouldChangeOnEveryWrite() {
+    long initial = repository.findGeneration();
+    Product saved = repository.save(testProduct1);
+    long afterSave = repository.findGeneration();
+    repository.deleteById(saved.getId());
+
+    assertTrue(afterSave > initial);
+    assertTrue(repository.findGeneration() > afterSave);
+  }
+
+  @Test
+  void testSave_WithPriceTooPreciseToStore_ShouldThrowAndStoreNothing() {
+    testProduct1.setUnitPrice(new BigDecimal("123456789012345678901234567890.99"));
+
+    assertThrows(IllegalArgumentException.class, () -> repository.save(testProduct1));
+    assertEquals(0, repository.count());
+  }
+
+  @Test
+  void testFindById_WithIdThatIsNotUuid_ShouldReturnStoredProduct() {
+    testProduct1.setId("SKU-0001");
+    testProduct2.setId("550E8400-E29B-41D4-A716-446655440000");
+    repository.saveAll(List.of(testProduct1, testProduct2));
+
+    assertEquals("Test Laptop", repository.findById("SKU-0001").orElseThrow().getName());
+    assertEquals("550E8400-E29B-41D4-A716-446655440000", repository.findById(testProduct2.getId()).orElseThrow().getId());
+    assertTrue(repository.findById("550e8400-e29b-41d4-a716-446655440000").isEmpty());
+  }
 }
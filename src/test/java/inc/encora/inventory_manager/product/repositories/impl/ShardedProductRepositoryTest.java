@@ -0,0 +1,221 @@
+package inc.encora.inventory_manager.product.repositories.impl;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.seed.ProductSeedOptions;
+import inc.encora.inventory_manager.common.utils.ScrollPositionCodec;
+import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.wal.ProductChangeLog;
+import inc.encora.inventory_manager.product.repositories.wal.ProductLogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedProductRepositoryTest {
+
+  private ShardedProductRepository repository;
+  private LocalProductRepository reference;
+  private List<Product> catalog;
+
+  @BeforeEach
+  void setUp() {
+    repository = new ShardedProductRepository(4, 2, ProductChangeLog.NONE);
+    reference = new LocalProductRepository();
+
+    catalog = ProductSeed.generate(ProductSeedOptions.builder()
+        .size(2_000)
+        .seed(11L)
+        .referenceDate(LocalDate.of(2025, 1, 1))
+        .build());
+    repository.saveAll(catalog.stream().map(product -> product.toBuilder().build()).toList());
+    reference.saveAll(catalog.stream().map(product -> product.toBuilder().build()).toList());
+  }
+
+  @AfterEach
+  void tearDown() {
+    repository.destroy();
+  }
+
+  private static List<String> idsOf(Iterable<Product> products) {
+    List<String> ids = new ArrayList<>();
+    products.forEach(product -> ids.add(product.getId()));
+    return ids;
+  }
+
+  @Test
+  void testFindAll_WithIndexedSort_ShouldMatchSingleRepositoryOnEveryPage() {
+    Sort sort = Sort.by("unitPrice").descending();
+    for (int page = 0; page < 5; page++) {
+      Pageable pageable = PageRequest.of(page, 37, sort);
+
+      Page<Product> sharded = repository.findAll(pageable);
+      Page<Product> expected = reference.findAll(pageable);
+
+      assertEquals(expected.getTotalElements(), sharded.getTotalElements());
+      assertEquals(idsOf(expected), idsOf(sharded));
+    }
+  }
+
+  @Test
+  void testFindByNameOrCategoryOrQuantityInStock_ShouldMatchSingleRepository() {
+    List<String> categories = List.of("Electronics", "Audio");
+    // Unindexed sorts leave ties in any order, so pages are compared by their sort keys
+    Sort sort = Sort.by("category").and(Sort.by("quantityInStock").descending());
+    Pageable pageable = PageRequest.of(2, 25, sort);
+
+    Page<Product> sharded = repository.findByNameOrCategoryOrQuantityInStock(pageable, "pro", categories, AvailabilityStatus.IN_STOCK);
+    Page<Product> expected = reference.findByNameOrCategoryOrQuantityInStock(pageable, "pro", categories, AvailabilityStatus.IN_STOCK);
+
+    Function<Product, String> sortKey = product -> product.getCategory() + "/" + product.getQuantityInStock();
+    assertTrue(expected.getTotalElements() > 75);
+    assertEquals(expected.getTotalElements(), sharded.getTotalElements());
+    assertEquals(expected.getContent().stream().map(sortKey).toList(), sharded.getContent().stream().map(sortKey).toList());
+  }
+
+  @Test
+  void testFindAllWithScrollPosition_ShouldVisitEveryProductOnceInSortOrder() {
+    List<String> expected = idsOf(reference.findAll(PageRequest.of(0, catalog.size(), Sort.by("name"))));
+
+    List<String> visited = new ArrayList<>();
+    KeysetScrollPosition position = ScrollPosition.keyset();
+    Window<Product> window;
+    do {
+      window = repository.findAll(position, Sort.by("name"), 150);
+      window.forEach(product -> visited.add(product.getId()));
+      position = window.isEmpty() ? position
+          : ScrollPositionCodec.decode(ScrollPositionCodec.encode((KeysetScrollPosition) window.positionAt(window.size() - 1)));
+    } while (window.hasNext());
+
+    assertEquals(expected, visited);
+  }
+
+  @Test
+  void testUpdateAllById_AcrossShards_ShouldStoreAllOrNothing() {
+    List<String> ids = catalog.stream().limit(40).map(Product::getId).toList();
+
+    boolean rejected = repository.updateAllById(ids, products -> {
+      assertEquals(40, products.size());
+      products.values().forEach(product -> product.setQuantityInStock(-1));
+      return false;
+    });
+    boolean accepted = repository.updateAllById(ids, products -> {
+      products.values().forEach(product -> product.setQuantityInStock(1234));
+      return true;
+    });
+
+    assertFalse(rejected);
+    assertTrue(accepted);
+    for (Product product : repository.findAllById(ids)) {
+      assertEquals(1234, product.getQuantityInStock());
+    }
+  }
+
+  // Keeps every appended record, one list of entries per record
+  private static class RecordingChangeLog implements ProductChangeLog {
+    private final List<List<ProductLogEntry>> records = new ArrayList<>();
+
+    @Override
+    public synchronized long append(List<ProductLogEntry> entries) {
+      records.add(List.copyOf(entries));
+      return records.size();
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+    }
+
+    @Override
+    public long replay(ProductRepository target) {
+      return 0;
+    }
+  }
+
+  @Test
+  void testUpdateAllById_AcrossShards_ShouldLogOneRecord() {
+    RecordingChangeLog changeLog = new RecordingChangeLog();
+    ShardedProductRepository logged = new ShardedProductRepository(4, 2, changeLog);
+    try {
+      logged.saveAll(catalog.stream().limit(40).map(product -> product.toBuilder().build()).toList());
+      List<String> ids = catalog.stream().limit(40).map(Product::getId).toList();
+      changeLog.records.clear();
+
+      logged.updateAllById(ids, products -> {
+        products.values().forEach(product -> product.setQuantityInStock(777));
+        return true;
+      });
+
+      assertEquals(1, changeLog.records.size());
+      assertEquals(Set.copyOf(ids), changeLog.records.get(0).stream().map(ProductLogEntry::id).collect(Collectors.toSet()));
+    } finally {
+      logged.destroy();
+    }
+  }
+
+  @Test
+  void testDeleteAll_ShouldLogOneClearAndEmptyEveryShard() {
+    RecordingChangeLog changeLog = new RecordingChangeLog();
+    ShardedProductRepository logged = new ShardedProductRepository(4, 2, changeLog);
+    try {
+      logged.saveAll(catalog.stream().limit(40).map(product -> product.toBuilder().build()).toList());
+      changeLog.records.clear();
+
+      logged.deleteAll();
+
+      assertEquals(List.of(List.of(ProductLogEntry.clear())), changeLog.records);
+      assertEquals(0, logged.count());
+    } finally {
+      logged.destroy();
+    }
+  }
+
+  @Test
+  void testFindInventoryByCategory_ShouldMergeShardTotals() {
+    Comparator<CategoryInventory> byCategory = Comparator.comparing(CategoryInventory::category);
+
+    assertEquals(
+        reference.findInventoryByCategory().stream().sorted(byCategory).toList(),
+        repository.findInventoryByCategory().stream().sorted(byCategory).toList());
+    assertEquals(new HashSet<>(reference.findAllCategories()), Set.copyOf(repository.findAllCategories()));
+    assertEquals(catalog.size(), repository.count());
+  }
+
+  @Test
+  void testFindIndexSizes_ShouldSumShards() {
+    Map<String, Integer> sizes = repository.findIndexSizes();
+
+    // Every shard indexes the categories of its own products
+    assertTrue(sizes.get("category") >= reference.findIndexSizes().get("category"));
+    assertEquals(4 * reference.findIndexSizes().get("category_inventory"), sizes.get("category_inventory"));
+  }
+
+  @Test
+  void testFindGeneration_ShouldChangeOnEveryWrite() {
+    long before = repository.findGeneration();
+
+    repository.deleteById(catalog.getFirst().getId());
+
+    assertNotEquals(before, repository.findGeneration());
+    assertTrue(repository.findById(catalog.getFirst().getId()).isEmpty());
+  }
+}
@@ -0,0 +1,132 @@
+package inc.encora.inventory_manager.product.repositories.storage;
+
+import inc.encora.inventory_manager.common.seed.ProductSeed;
+import inc.encora.inventory_manager.common.seed.ProductSeedOptions;
+import inc.encora.inventory_manager.common.utils.InMemoryComparatorUtil;
+import inc.encora.inventory_manager.product.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactProductTest {
+
+  private final CategoryDictionary categories = new CategoryDictionary();
+
+  private CompactProduct compact(Product product) {
+    return CompactProduct.of(ProductId.of(product.getId()), product, categories);
+  }
+
+  @Test
+  void testToProduct_ShouldRestoreEveryField() {
+    Product product = Product.builder()
+        .name("Gaming Mouse X Pro")
+        .category("Peripherals")
+        .unitPrice(new BigDecimal("79.90"))
+        .expirationDate(LocalDate.of(2027, 3, 15))
+        .quantityInStock(50)
+        .createdAt(LocalDate.of(2025, 6, 25))
+        .updatedAt(LocalDate.of(2025, 7, 1))
+        .version(3)
+        .build();
+
+    Product restored = compact(product).toProduct(categories);
+
+    assertEquals(product, restored);
+    assertEquals(2, restored.getUnitPrice().scale());
+  }
+
+  @Test
+  void testToProduct_WithMissingFields_ShouldRestoreNulls() {
+    Product product = Product.builder()
+        .id("SKU-0001")
+        .createdAt(null)
+        .updatedAt(null)
+        .build();
+
+    assertEquals(product, compact(product).toProduct(categories));
+  }
+
+  @Test
+  void testOf_WithPriceTooPrecise_ShouldThrowIllegalArgument() {
+    Product tooManyDigits = Product.builder().unitPrice(new BigDecimal("99999999999999999999")).build();
+    Product tooLargeScale = Product.builder().unitPrice(new BigDecimal("1E-200")).build();
+
+    assertThrows(IllegalArgumentException.class, () -> compact(tooManyDigits));
+    assertThrows(IllegalArgumentException.class, () -> compact(tooLargeScale));
+  }
+
+  @Test
+  void testOf_WithPriceLongOnlyInTrailingZeros_ShouldStoreItsShortestForm() {
+    Product product = Product.builder().unitPrice(new BigDecimal("12.500000000000000000000000")).build();
+
+    assertEquals(0, new BigDecimal("12.5").compareTo(compact(product).getUnitPrice()));
+  }
+
+  @Test
+  void testOf_ShouldShareCategoryKeyAcrossSpellings() {
+    CompactProduct lower = compact(Product.builder().category("audio").build());
+    CompactProduct upper = compact(Product.builder().category("Audio").build());
+
+    assertNotEquals(lower.getCategory(), upper.getCategory());
+    assertEquals(categories.keyIdOf(lower.getCategory()), categories.keyIdOf(upper.getCategory()));
+    assertEquals("Audio", upper.toProduct(categories).getCategory());
+    assertEquals(CategoryDictionary.NO_CATEGORY, categories.findKeyId("video"));
+  }
+
+  @Test
+  void testProductId_ShouldOrderLikeIdStrings() {
+    List<String> ids = new ArrayList<>(List.of("SKU-0001", "ffffffff-ffff-ffff-ffff-ffffffffffff", "zz"));
+    for (int i = 0; i < 200; i++) {
+      ids.add(UUID.randomUUID().toString());
+    }
+
+    for (String id1 : ids) {
+      assertEquals(id1, ProductId.of(id1).toString());
+      for (String id2 : ids) {
+        assertEquals(Integer.signum(id1.compareTo(id2)), Integer.signum(ProductId.of(id1).compareTo(ProductId.of(id2))));
+        assertEquals(id1.equals(id2), ProductId.of(id1).equals(ProductId.of(id2)));
+      }
+    }
+  }
+
+  @Test
+  void testPropertyOrder_ShouldMatchProductOrder() {
+    List<Product> catalog = ProductSeed.generate(ProductSeedOptions.builder().size(500).seed(5L).build());
+    catalog.get(0).setUnitPrice(new BigDecimal("12.5"));
+    catalog.get(1).setUnitPrice(null);
+    catalog.get(2).setQuantityInStock(null);
+    catalog.get(3).setCategory(null);
+
+    for (String property : List.of("name", "category", "unitPrice", "expirationDate", "quantityInStock")) {
+      Comparator<Product> expected = InMemoryComparatorUtil.getPropertyComparator(Product.class, property)
+          .thenComparing(Product::getId);
+      Comparator<CompactProduct> actual = CompactProduct.propertyOrder(property, categories)
+          .thenComparing(CompactProduct::getId);
+
+      List<Product> sortedProducts = catalog.stream().sorted(expected).toList();
+      List<Product> sortedCompacts = catalog.stream().map(this::compact).sorted(actual)
+          .map(product -> product.toProduct(categories)).toList();
+      assertEquals(sortedProducts, sortedCompacts, property);
+    }
+  }
+
+  @Test
+  void testSortKey_WithUnknownCategory_ShouldNotGrowDictionary() {
+    compact(Product.builder().category("Audio").build());
+    compact(Product.builder().category("Storage").build());
+
+    CompactProduct key = CompactProduct.sortKey("category", ProductId.of("a"), Product.builder().category("Peripherals").build(), categories);
+    Comparator<CompactProduct> order = CompactProduct.propertyOrder("category", categories);
+
+    assertEquals(2, categories.size());
+    assertTrue(order.compare(key, compact(Product.builder().category("Audio").build())) > 0);
+    assertTrue(order.compare(key, compact(Product.builder().category("Storage").build())) < 0);
+  }
+}
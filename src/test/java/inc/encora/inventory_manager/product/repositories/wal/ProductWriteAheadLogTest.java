@@ -0,0 +1,405 @@
+package inc.encora.inventory_manager.product.repositories.wal;
+
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductWriteAheadLogTest {
+
+  @TempDir
+  private Path directory;
+
+  private Path logPath() {
+    return directory.resolve("products.wal");
+  }
+
+  private Path snapshotPath() {
+    return directory.resolve("products.snapshot");
+  }
+
+  private ProductWriteAheadLog openLog(FsyncPolicy fsyncPolicy) {
+    return new ProductWriteAheadLog(logPath(), fsyncPolicy, 2);
+  }
+
+  private ProductWriteAheadLog openSnapshottingLog() {
+    return new ProductWriteAheadLog(logPath(), FsyncPolicy.OS, 2, new ProductSnapshotFile(snapshotPath()), 0, 0);
+  }
+
+  private LocalProductRepository recoverFromSnapshot() {
+    LocalProductRepository recovered = new LocalProductRepository();
+    openSnapshottingLog().replay(recovered);
+    return recovered;
+  }
+
+  private static Set<Product> contentsOf(LocalProductRepository repository) {
+    Set<Product> contents = new HashSet<>();
+    repository.findAll().forEach(contents::add);
+    return contents;
+  }
+
+  // Starts a repository on top of the log, as the application does on startup
+  private static LocalProductRepository openRepository(ProductWriteAheadLog log) {
+    LocalProductRepository repository = new LocalProductRepository(log);
+    log.replay(repository);
+    return repository;
+  }
+
+  // Replays the log into a repository that records nothing, as a restart does before any new write
+  private LocalProductRepository recover() {
+    LocalProductRepository recovered = new LocalProductRepository();
+    openLog(FsyncPolicy.OS).replay(recovered);
+    return recovered;
+  }
+
+  private static Product product(String id, int quantityInStock) {
+    return Product.builder()
+        .id(id)
+        .name("Product " + id)
+        .category("Electronics")
+        .unitPrice(new BigDecimal("19.90"))
+        .expirationDate(LocalDate.of(2027, 3, 15))
+        .quantityInStock(quantityInStock)
+        .build();
+  }
+
+  private void cutTail(long bytes) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(logPath().toFile(), "rw")) {
+      file.setLength(file.length() - bytes);
+    }
+  }
+
+  @Test
+  void testDeleteById_WithMissingId_ShouldNotLogOrChangeGeneration() throws IOException {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.ALWAYS);
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    long logSize = Files.size(logPath());
+    long generation = repository.findGeneration();
+
+    repository.deleteById("missing");
+    repository.deleteAllById(List.of("missing", "also-missing"));
+    log.close();
+
+    assertEquals(logSize, Files.size(logPath()));
+    assertEquals(generation, repository.findGeneration());
+    assertEquals(1, repository.count());
+  }
+
+  @Test
+  void testReplay_ShouldRestoreSavesUpdatesAndDeletes() {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.ALWAYS);
+    LocalProductRepository repository = openRepository(log);
+
+    repository.save(product("a", 5));
+    repository.saveAll(List.of(product("b", 7), product("c", 0), product("d", 2)));
+    repository.updateById("a", product -> product.setQuantityInStock(4));
+    repository.deleteById("c");
+    Product expiring = product("e", 1).toBuilder().expirationDate(null).unitPrice(null).build();
+    repository.save(expiring);
+    log.close();
+
+    LocalProductRepository recovered = recover();
+
+    assertEquals(4, recovered.count());
+    assertEquals(repository.findById("a"), recovered.findById("a"));
+    assertEquals(2, recovered.findById("a").orElseThrow().getVersion());
+    assertEquals(repository.findById("e"), recovered.findById("e"));
+    assertTrue(recovered.findById("c").isEmpty());
+    assertEquals(repository.findInventoryByCategory(), recovered.findInventoryByCategory());
+  }
+
+  @Test
+  void testReplay_AfterDeleteAll_ShouldOnlyRestoreLaterProducts() {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.OS);
+    LocalProductRepository repository = openRepository(log);
+
+    repository.save(product("a", 5));
+    repository.deleteAll();
+    repository.save(product("b", 3));
+    log.close();
+
+    LocalProductRepository recovered = recover();
+
+    assertEquals(1, recovered.count());
+    assertTrue(recovered.existsById("b"));
+  }
+
+  @Test
+  void testReplay_WithTornTailRecord_ShouldDropItAndTruncateTheFile() throws IOException {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.OS);
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    repository.save(product("b", 7));
+    long intactLength = log.getWrittenBytes();
+    repository.save(product("c", 9));
+    log.close();
+
+    // The last record lost its final bytes in the crash
+    cutTail(3);
+    ProductWriteAheadLog reopened = openLog(FsyncPolicy.OS);
+    LocalProductRepository recovered = openRepository(reopened);
+
+    assertEquals(2, recovered.count());
+    assertFalse(recovered.existsById("c"));
+    assertEquals(intactLength, Files.size(logPath()));
+
+    // Writes after recovery land right after the last intact record
+    recovered.save(product("d", 1));
+    reopened.close();
+    LocalProductRepository afterRestart = recover();
+    assertTrue(afterRestart.existsById("d"));
+    assertEquals(3, afterRestart.count());
+  }
+
+  @Test
+  void testReplay_WithPartialHeader_ShouldDropIt() throws IOException {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.OS);
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    long intactLength = log.getWrittenBytes();
+    log.close();
+
+    Files.write(logPath(), new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+    LocalProductRepository recovered = recover();
+
+    assertEquals(1, recovered.count());
+    assertEquals(intactLength, Files.size(logPath()));
+  }
+
+  @Test
+  void testReplay_WithCorruptedTailRecord_ShouldDropIt() throws IOException {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.OS);
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    repository.save(product("b", 7));
+    log.close();
+
+    // Same length, but a byte of the last payload never made it to disk
+    try (RandomAccessFile file = new RandomAccessFile(logPath().toFile(), "rw")) {
+      file.seek(file.length() - 10);
+      int original = file.read();
+      file.seek(file.length() - 10);
+      file.write(original ^ 0x5A);
+    }
+    LocalProductRepository recovered = recover();
+
+    assertEquals(1, recovered.count());
+    assertTrue(recovered.existsById("a"));
+  }
+
+  @Test
+  void testReplay_WithTornBatchRecord_ShouldApplyNoneOfTheBatch() throws IOException {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.OS);
+    LocalProductRepository repository = openRepository(log);
+    repository.saveAll(List.of(product("a", 5), product("b", 7)));
+    repository.updateAllById(List.of("a", "b"), products -> {
+      products.values().forEach(product -> product.setQuantityInStock(product.getQuantityInStock() - 1));
+      return true;
+    });
+    log.close();
+
+    cutTail(1);
+    LocalProductRepository recovered = recover();
+
+    assertEquals(5, recovered.findById("a").orElseThrow().getQuantityInStock());
+    assertEquals(7, recovered.findById("b").orElseThrow().getQuantityInStock());
+  }
+
+  @Test
+  void testAppend_WithGroupCommit_ShouldReturnOnceConcurrentWritesAreDurable() throws Exception {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.GROUP);
+    LocalProductRepository logged = openRepository(log);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> writes = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String id = "p" + i;
+      writes.add(executor.submit(() -> logged.save(product(id, 1))));
+    }
+    for (Future<?> write : writes) {
+      write.get();
+    }
+    executor.shutdown();
+    log.close();
+
+    assertEquals(200, recover().count());
+  }
+
+  @Test
+  void testReplay_ShouldNotAppendTheReplayedWrites() {
+    ProductWriteAheadLog log = openLog(FsyncPolicy.OS);
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    repository.save(product("b", 7));
+    long length = log.getWrittenBytes();
+    log.close();
+
+    ProductWriteAheadLog reopened = openLog(FsyncPolicy.OS);
+    LocalProductRepository recovered = new LocalProductRepository(reopened);
+
+    assertEquals(2, reopened.replay(recovered));
+    assertEquals(2, recovered.count());
+    assertEquals(length, reopened.getWrittenBytes());
+    reopened.close();
+  }
+
+  @Test
+  void testAppend_BeforeReplay_ShouldBeRejected() {
+    LocalProductRepository repository = new LocalProductRepository(openLog(FsyncPolicy.OS));
+
+    assertThrows(IllegalStateException.class, () -> repository.save(product("a", 5)));
+    assertEquals(0, repository.count());
+  }
+
+  @Test
+  void testSnapshot_ShouldRestoreEveryProductAndEmptyTheLog() throws IOException {
+    ProductWriteAheadLog log = openSnapshottingLog();
+    LocalProductRepository repository = openRepository(log);
+    repository.saveAll(List.of(product("a", 5), product("b", 7), product("c", 0)));
+    repository.updateById("a", product -> product.setQuantityInStock(4));
+    repository.save(product("d", 1).toBuilder().unitPrice(null).expirationDate(null).build());
+
+    log.snapshot(repository);
+
+    assertEquals(ProductWriteAheadLog.FILE_HEADER_BYTES, log.getWrittenBytes());
+    assertEquals(ProductWriteAheadLog.FILE_HEADER_BYTES, Files.size(logPath()));
+    log.close();
+
+    LocalProductRepository recovered = recoverFromSnapshot();
+    assertEquals(contentsOf(repository), contentsOf(recovered));
+    assertEquals(2, recovered.findById("a").orElseThrow().getVersion());
+    assertEquals(repository.findInventoryByCategory(), recovered.findInventoryByCategory());
+  }
+
+  @Test
+  void testSnapshot_ShouldReplayLaterWritesOnTopOfIt() {
+    ProductWriteAheadLog log = openSnapshottingLog();
+    LocalProductRepository repository = openRepository(log);
+    repository.saveAll(List.of(product("a", 5), product("b", 7)));
+    log.snapshot(repository);
+    repository.updateById("a", product -> product.setQuantityInStock(3));
+    repository.deleteById("b");
+    repository.save(product("c", 2));
+    log.close();
+
+    ProductWriteAheadLog reopened = openSnapshottingLog();
+    LocalProductRepository recovered = new LocalProductRepository(reopened);
+
+    // The snapshot, then the update, the delete and the save
+    assertEquals(4, reopened.replay(recovered));
+    assertEquals(contentsOf(repository), contentsOf(recovered));
+    assertEquals(2, recovered.findById("a").orElseThrow().getVersion());
+
+    // Writes after a restart keep counting versions and positions from where the log left off
+    recovered.updateById("a", product -> product.setQuantityInStock(1));
+    reopened.close();
+    assertEquals(3, recoverFromSnapshot().findById("a").orElseThrow().getVersion());
+  }
+
+  @Test
+  void testReplay_WithRecordsTheSnapshotCovers_ShouldSkipThem() throws IOException {
+    ProductWriteAheadLog log = openSnapshottingLog();
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    repository.updateById("a", product -> product.setQuantityInStock(4));
+    Path fullLog = directory.resolve("full.wal");
+    Files.copy(logPath(), fullLog);
+    log.snapshot(repository);
+    log.close();
+
+    // The process stopped after writing the snapshot but before dropping the records from the log
+    Files.move(fullLog, logPath(), StandardCopyOption.REPLACE_EXISTING);
+    LocalProductRepository recovered = recoverFromSnapshot();
+
+    assertEquals(1, recovered.count());
+    assertEquals(4, recovered.findById("a").orElseThrow().getQuantityInStock());
+    assertEquals(2, recovered.findById("a").orElseThrow().getVersion());
+  }
+
+  @Test
+  void testSnapshot_WithConcurrentWriters_ShouldRecoverTheFinalState() throws Exception {
+    ProductWriteAheadLog log = openSnapshottingLog();
+    LocalProductRepository repository = openRepository(log);
+    List<Product> initial = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      initial.add(product("p" + i, 10));
+    }
+    repository.saveAll(initial);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int writer = 0; writer < 4; writer++) {
+      int offset = writer;
+      writers.add(executor.submit(() -> {
+        for (int i = offset; i < 2_000; i += 4) {
+          String id = "p" + i;
+          if (i % 3 == 0) {
+            repository.deleteById(id);
+          } else {
+            repository.updateById(id, product -> product.setQuantityInStock(product.getQuantityInStock() - 1));
+          }
+          repository.save(product("n" + i, 1));
+        }
+      }));
+    }
+    log.snapshot(repository);
+    for (Future<?> writer : writers) {
+      writer.get();
+    }
+    executor.shutdown();
+    log.close();
+
+    assertEquals(contentsOf(repository), contentsOf(recoverFromSnapshot()));
+  }
+
+  @Test
+  void testReplay_WithCorruptedSnapshot_ShouldFail() throws IOException {
+    ProductWriteAheadLog log = openSnapshottingLog();
+    LocalProductRepository repository = openRepository(log);
+    repository.saveAll(List.of(product("a", 5), product("b", 7)));
+    log.snapshot(repository);
+    log.close();
+
+    try (RandomAccessFile file = new RandomAccessFile(snapshotPath().toFile(), "rw")) {
+      file.seek(file.length() - 5);
+      int original = file.read();
+      file.seek(file.length() - 5);
+      file.write(original ^ 0x5A);
+    }
+
+    assertThrows(UncheckedIOException.class, this::recoverFromSnapshot);
+  }
+
+  @Test
+  void testReplay_WithSnapshottedLogButNoSnapshot_ShouldFail() {
+    ProductWriteAheadLog log = openSnapshottingLog();
+    LocalProductRepository repository = openRepository(log);
+    repository.save(product("a", 5));
+    log.snapshot(repository);
+    repository.save(product("b", 7));
+    log.close();
+
+    // Without the snapshot, the records the log dropped are gone
+    assertThrows(IllegalStateException.class, this::recover);
+  }
+}
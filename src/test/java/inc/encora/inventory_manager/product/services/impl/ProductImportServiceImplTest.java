@@ -0,0 +1,138 @@
+package inc.encora.inventory_manager.product.services.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import inc.encora.inventory_manager.product.dtos.ProductImportResultDTO;
+import inc.encora.inventory_manager.product.models.Product;
+import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+  @Mock
+  private ProductRepository productRepository;
+
+  private ProductImportServiceImpl productImportService;
+
+  private final List<List<Product>> savedBatches = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    JsonMapper objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+    productImportService = new ProductImportServiceImpl(
+        productRepository, objectMapper, Validation.buildDefaultValidatorFactory().getValidator());
+
+    lenient().when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+      Iterable<Product> batch = invocation.getArgument(0);
+      List<Product> copy = new ArrayList<>();
+      batch.forEach(copy::add);
+      savedBatches.add(copy);
+      return batch;
+    });
+  }
+
+  private static InputStream body(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String row(String name, String unitPrice) {
+    return "{\"name\":\"" + name + "\",\"category\":\"Electronics\",\"unitPrice\":" + unitPrice
+        + ",\"expirationDate\":\"2099-01-01\",\"quantityInStock\":5}";
+  }
+
+  @Test
+  void testImportProducts_WithJsonArray_ShouldSaveEveryRowInOneBatch() throws IOException {
+    ProductImportResultDTO result = productImportService.importProducts(
+        body("[" + row("Laptop", "999.99") + "," + row("Mouse", "29.99") + "]"));
+
+    assertEquals(2, result.getTotalRows());
+    assertEquals(2, result.getImportedRows());
+    assertEquals(0, result.getFailedRows());
+    assertEquals(1, savedBatches.size());
+    assertEquals(List.of("Laptop", "Mouse"), savedBatches.getFirst().stream().map(Product::getName).toList());
+  }
+
+  @Test
+  void testImportProducts_WithInvalidNdjsonRows_ShouldReportThemAndKeepGoing() throws IOException {
+    String ndjson = String.join("\n",
+        row("Laptop", "999.99"),
+        row("Free Laptop", "0"),
+        row("Broken Laptop", "\"not a price\""),
+        row("Mouse", "29.99")) + "\n";
+
+    ProductImportResultDTO result = productImportService.importProducts(body(ndjson));
+
+    assertEquals(4, result.getTotalRows());
+    assertEquals(2, result.getImportedRows());
+    assertEquals(2, result.getFailedRows());
+    assertEquals(2, result.getErrors().get(0).getRow());
+    assertEquals(Map.of("unitPrice", "Unit price cannot be 0 or negative"), result.getErrors().get(0).getErrors());
+    assertEquals(3, result.getErrors().get(1).getRow());
+    assertEquals(Map.of("unitPrice", "Invalid value"), result.getErrors().get(1).getErrors());
+    assertEquals(List.of("Laptop", "Mouse"), savedBatches.getFirst().stream().map(Product::getName).toList());
+  }
+
+  @Test
+  void testImportProducts_WithMoreRowsThanBatchSize_ShouldSaveInBatches() throws IOException {
+    StringBuilder ndjson = new StringBuilder();
+    int rows = ProductImportServiceImpl.BATCH_SIZE * 2 + 1;
+    for (int i = 0; i < rows; i++) {
+      ndjson.append(row("Product " + i, "10")).append('\n');
+    }
+
+    ProductImportResultDTO result = productImportService.importProducts(body(ndjson.toString()));
+
+    assertEquals(rows, result.getImportedRows());
+    assertEquals(3, savedBatches.size());
+    assertEquals(1, savedBatches.get(2).size());
+  }
+
+  @Test
+  void testImportProducts_WithMalformedJson_ShouldStopAndKeepPreviousRows() throws IOException {
+    ProductImportResultDTO result = productImportService.importProducts(
+        body(row("Laptop", "999.99") + "\n{\"name\": \"Mouse\",,}\n" + row("Keyboard", "49.99")));
+
+    assertEquals(2, result.getTotalRows());
+    assertEquals(1, result.getImportedRows());
+    assertEquals(1, result.getFailedRows());
+    assertEquals(2, result.getErrors().getFirst().getRow());
+    assertTrue(result.getErrors().getFirst().getErrors().get("details").startsWith("Malformed JSON"));
+    verify(productRepository, times(1)).saveAll(any());
+  }
+
+  @Test
+  void testImportProducts_WithValuesTooLargeToStore_ShouldReportRowErrors() throws IOException {
+    String ndjson = String.join("\n",
+        row("Laptop", "999.99"),
+        row("Gold Laptop", "1234567890123456789.99"),
+        "{\"name\":\"Far Laptop\",\"category\":\"Electronics\",\"unitPrice\":9.99,\"expirationDate\":\"+12025-01-01\",\"quantityInStock\":5}");
+
+    ProductImportResultDTO result = productImportService.importProducts(body(ndjson));
+
+    assertEquals(1, result.getImportedRows());
+    assertEquals(2, result.getFailedRows());
+    assertTrue(result.getErrors().get(0).getErrors().containsKey("unitPrice"));
+    assertTrue(result.getErrors().get(1).getErrors().containsKey("expirationDateInSupportedRange"));
+  }
+}
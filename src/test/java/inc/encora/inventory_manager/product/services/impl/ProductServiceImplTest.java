@@ -1,28 +1,56 @@
 package inc.encora.inventory_manager.product.services.impl;
 
+import inc.encora.inventory_manager.common.exceptions.InsufficientStockException;
+import inc.encora.inventory_manager.common.exceptions.PreconditionFailedException;
 import inc.encora.inventory_manager.common.exceptions.ResourceNotFoundException;
 import inc.encora.inventory_manager.product.constants.AvailabilityStatus;
 import inc.encora.inventory_manager.product.constants.DefaultStockValues;
+import inc.encora.inventory_manager.product.constants.ProductChangeType;
+import inc.encora.inventory_manager.product.constants.StockAdjustmentStatus;
 import inc.encora.inventory_manager.product.dtos.InventoryMetricDTO;
+import inc.encora.inventory_manager.product.dtos.ProductChangeEventDTO;
 import inc.encora.inventory_manager.product.dtos.ProductDTO;
+import inc.encora.inventory_manager.product.dtos.ProductLookupResultDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentDTO;
+import inc.encora.inventory_manager.product.dtos.StockAdjustmentResultDTO;
+import inc.encora.inventory_manager.product.models.CategoryInventory;
 import inc.encora.inventory_manager.product.models.Product;
 import inc.encora.inventory_manager.product.repositories.ProductRepository;
+import inc.encora.inventory_manager.product.repositories.impl.LocalProductRepository;
+import inc.encora.inventory_manager.product.services.cache.ProductSearchCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +62,12 @@ class ProductServiceImplTest {
   @Mock
   private ProductRepository productRepository;
 
+  @Spy
+  private ProductSearchCache productSearchCache = new ProductSearchCache(10);
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private ProductServiceImpl productService;
 
@@ -97,6 +131,26 @@ class ProductServiceImplTest {
     verify(productRepository).save(any(Product.class));
   }
 
+  @Test
+  void testSave_ShouldPublishCreatedEvent() {
+    when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+
+    productService.save(testProductDTO);
+
+    ArgumentCaptor<ProductChangeEventDTO> event = ArgumentCaptor.forClass(ProductChangeEventDTO.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(ProductChangeType.CREATED, event.getValue().getType());
+    assertEquals(testProduct, event.getValue().getProduct());
+  }
+
+  private void stubUpdateById(String id, Product existingProduct) {
+    when(productRepository.updateById(eq(id), any())).thenAnswer(invocation -> {
+      Consumer<Product> updater = invocation.getArgument(1);
+      updater.accept(existingProduct);
+      return Optional.of(existingProduct);
+    });
+  }
+
   @Test
   void testUpdate_WhenProductExists_ShouldUpdateAndReturnProduct() {
     Product existingProduct = Product.builder()
@@ -107,10 +161,9 @@ class ProductServiceImplTest {
         .quantityInStock(5)
         .build();
 
-    when(productRepository.findById(testProductId)).thenReturn(Optional.of(existingProduct));
-    when(productRepository.save(any(Product.class))).thenReturn(existingProduct);
+    stubUpdateById(testProductId, existingProduct);
 
-    Product result = productService.update(testProductId, testProductDTO);
+    Product result = productService.update(testProductId, testProductDTO, null);
 
     assertNotNull(result);
     assertEquals(testProductDTO.getName(), existingProduct.getName());
@@ -119,97 +172,264 @@ class ProductServiceImplTest {
     assertEquals(testProductDTO.getExpirationDate(), existingProduct.getExpirationDate());
     assertEquals(testProductDTO.getQuantityInStock(), existingProduct.getQuantityInStock());
     assertEquals(LocalDate.now(), existingProduct.getUpdatedAt());
-    verify(productRepository).findById(testProductId);
-    verify(productRepository).save(existingProduct);
+    verify(productRepository).updateById(eq(testProductId), any());
+    verify(productRepository, never()).save(any());
   }
 
   @Test
   void testUpdate_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
-    when(productRepository.findById(testProductId)).thenReturn(Optional.empty());
+    when(productRepository.updateById(eq(testProductId), any())).thenReturn(Optional.empty());
 
     ResourceNotFoundException exception = assertThrows(
         ResourceNotFoundException.class,
-        () -> productService.update(testProductId, testProductDTO));
+        () -> productService.update(testProductId, testProductDTO, null));
 
     assertEquals("Product not found", exception.getMessage());
-    verify(productRepository).findById(testProductId);
+    verify(productRepository).updateById(eq(testProductId), any());
     verify(productRepository, never()).save(any());
   }
 
   @Test
   void testMarkProductOutOfStock_WhenProductExists_ShouldSetQuantityToZero() {
-    when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
-    when(productRepository.save(testProduct)).thenReturn(testProduct);
+    stubUpdateById(testProductId, testProduct);
 
-    productService.markProductOutOfStock(testProductId);
+    productService.markProductOutOfStock(testProductId, null);
 
     assertEquals(DefaultStockValues.OUT_OF_STOCK.getValue(), testProduct.getQuantityInStock());
     assertEquals(LocalDate.now(), testProduct.getUpdatedAt());
-    verify(productRepository).findById(testProductId);
-    verify(productRepository).save(testProduct);
+    verify(productRepository).updateById(eq(testProductId), any());
   }
 
   @Test
   void testMarkProductOutOfStock_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
-    when(productRepository.findById(testProductId)).thenReturn(Optional.empty());
+    when(productRepository.updateById(eq(testProductId), any())).thenReturn(Optional.empty());
 
     ResourceNotFoundException exception = assertThrows(
         ResourceNotFoundException.class,
-        () -> productService.markProductOutOfStock(testProductId));
+        () -> productService.markProductOutOfStock(testProductId, null));
 
     assertEquals("Product not found", exception.getMessage());
-    verify(productRepository).findById(testProductId);
+    verify(productRepository).updateById(eq(testProductId), any());
     verify(productRepository, never()).save(any());
   }
 
   @Test
   void testMarkProductInStock_WhenProductExists_ShouldSetQuantityToDefault() {
     testProduct.setQuantityInStock(0);
-    when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
-    when(productRepository.save(testProduct)).thenReturn(testProduct);
+    stubUpdateById(testProductId, testProduct);
 
-    productService.markProductInStock(testProductId);
+    productService.markProductInStock(testProductId, null);
 
     assertEquals(DefaultStockValues.RESTORED_STOCK.getValue(), testProduct.getQuantityInStock());
     assertEquals(LocalDate.now(), testProduct.getUpdatedAt());
-    verify(productRepository).findById(testProductId);
-    verify(productRepository).save(testProduct);
+    verify(productRepository).updateById(eq(testProductId), any());
   }
 
   @Test
   void testMarkProductInStock_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
-    when(productRepository.findById(testProductId)).thenReturn(Optional.empty());
+    when(productRepository.updateById(eq(testProductId), any())).thenReturn(Optional.empty());
 
     ResourceNotFoundException exception = assertThrows(
         ResourceNotFoundException.class,
-        () -> productService.markProductInStock(testProductId));
+        () -> productService.markProductInStock(testProductId, null));
 
     assertEquals("Product not found", exception.getMessage());
-    verify(productRepository).findById(testProductId);
+    verify(productRepository).updateById(eq(testProductId), any());
     verify(productRepository, never()).save(any());
   }
 
   @Test
   void testDeleteById_WhenProductExists_ShouldDeleteProduct() {
-    when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
+    when(productRepository.removeById(testProductId)).thenReturn(Optional.of(testProduct));
+
+    productService.deleteById(testProductId);
+
+    verify(productRepository).removeById(testProductId);
+    verify(productRepository, never()).findById(any());
+  }
+
+  @Test
+  void testDeleteById_WhenProductExists_ShouldPublishDeletedEventWithoutProduct() {
+    when(productRepository.removeById(testProductId)).thenReturn(Optional.of(testProduct));
 
     productService.deleteById(testProductId);
 
-    verify(productRepository).findById(testProductId);
-    verify(productRepository).deleteById(testProductId);
+    verify(eventPublisher).publishEvent(new ProductChangeEventDTO(ProductChangeType.DELETED, testProductId, null));
   }
 
   @Test
   void testDeleteById_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
-    when(productRepository.findById(testProductId)).thenReturn(Optional.empty());
+    when(productRepository.removeById(testProductId)).thenReturn(Optional.empty());
 
     ResourceNotFoundException exception = assertThrows(
         ResourceNotFoundException.class,
         () -> productService.deleteById(testProductId));
 
     assertEquals("Product not found", exception.getMessage());
-    verify(productRepository).findById(testProductId);
-    verify(productRepository, never()).deleteById(any());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void testAdjustStock_WithDelta_ShouldApplyItToCurrentQuantity() {
+    stubUpdateById(testProductId, testProduct);
+
+    Product result = productService.adjustStock(testProductId, -4, null);
+
+    assertEquals(6, result.getQuantityInStock());
+    assertEquals(LocalDate.now(), result.getUpdatedAt());
+  }
+
+  @Test
+  void testAdjustStock_WhenDecrementExceedsStock_ShouldThrowInsufficientStockException() {
+    stubUpdateById(testProductId, testProduct);
+
+    assertThrows(InsufficientStockException.class, () -> productService.adjustStock(testProductId, -11, null));
+    assertEquals(10, testProduct.getQuantityInStock());
+  }
+
+  @Test
+  void testAdjustStock_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
+    when(productRepository.updateById(eq(testProductId), any())).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> productService.adjustStock(testProductId, 1, null));
+  }
+
+  @Test
+  void testAdjustStock_WithConcurrentDecrements_ShouldNotLoseUpdates() throws Exception {
+    LocalProductRepository repository = new LocalProductRepository();
+    ProductServiceImpl service = new ProductServiceImpl(repository, new ProductSearchCache(0), event -> {});
+    testProduct.setQuantityInStock(1000);
+    repository.save(testProduct);
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    AtomicInteger rejected = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 150; i++) {
+          try {
+            service.adjustStock(testProduct.getId(), -1, null);
+          } catch (InsufficientStockException e) {
+            rejected.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    assertEquals(0, repository.findById(testProduct.getId()).orElseThrow().getQuantityInStock());
+    assertEquals(threads * 150 - 1000, rejected.get());
+  }
+
+  private void stubUpdateAllById(Map<String, Product> productsById) {
+    when(productRepository.updateAllById(any(), any())).thenAnswer(invocation -> {
+      Predicate<Map<String, Product>> updater = invocation.getArgument(1);
+      return updater.test(productsById);
+    });
+  }
+
+  @Test
+  void testAdjustStockBatch_ShouldApplyEachAdjustmentOnItsOwn() {
+    stubUpdateAllById(Map.of(testProductId, testProduct));
+
+    List<StockAdjustmentResultDTO> results = productService.adjustStock(List.of(
+        new StockAdjustmentDTO(testProductId, -4, null),
+        new StockAdjustmentDTO("missing-id", 1, null),
+        new StockAdjustmentDTO(testProductId, -7, null),
+        new StockAdjustmentDTO(testProductId, -6, null)), false);
+
+    assertEquals(List.of(StockAdjustmentStatus.APPLIED, StockAdjustmentStatus.NOT_FOUND,
+        StockAdjustmentStatus.INSUFFICIENT_STOCK, StockAdjustmentStatus.APPLIED),
+        results.stream().map(StockAdjustmentResultDTO::getStatus).toList());
+    assertEquals(6, results.get(2).getQuantityInStock());
+    assertEquals(0, results.get(3).getQuantityInStock());
+    assertEquals(0, testProduct.getQuantityInStock());
+  }
+
+  @Test
+  void testAdjustStockBatch_WhenAllOrNothingFails_ShouldDiscardTheBatch() {
+    stubUpdateAllById(Map.of(testProductId, testProduct));
+
+    List<StockAdjustmentResultDTO> results = productService.adjustStock(List.of(
+        new StockAdjustmentDTO(testProductId, -4, null),
+        new StockAdjustmentDTO(testProductId, -20, null)), true);
+
+    assertEquals(StockAdjustmentStatus.ROLLED_BACK, results.get(0).getStatus());
+    assertNull(results.get(0).getQuantityInStock());
+    assertEquals(StockAdjustmentStatus.INSUFFICIENT_STOCK, results.get(1).getStatus());
+    verify(productRepository).updateAllById(eq(Set.of(testProductId)), any());
+  }
+
+  @Test
+  void testAdjustStockBatch_WhenAllOrNothingFails_ShouldNotPublishEvents() {
+    stubUpdateAllById(Map.of(testProductId, testProduct));
+
+    productService.adjustStock(List.of(
+        new StockAdjustmentDTO(testProductId, -4, null),
+        new StockAdjustmentDTO(testProductId, -20, null)), true);
+
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void testUpdate_WithStaleVersion_ShouldThrowPreconditionFailedAndKeepProduct() {
+    testProduct.setVersion(5);
+    stubUpdateById(testProductId, testProduct);
+
+    assertThrows(PreconditionFailedException.class, () -> productService.update(testProductId, testProductDTO, Set.of(4L)));
+    assertEquals(10, testProduct.getQuantityInStock());
+  }
+
+  @Test
+  void testAdjustStock_WithCurrentVersion_ShouldApplyDelta() {
+    testProduct.setVersion(5);
+    stubUpdateById(testProductId, testProduct);
+
+    Product result = productService.adjustStock(testProductId, 2, Set.of(3L, 5L));
+
+    assertEquals(12, result.getQuantityInStock());
+  }
+
+  @Test
+  void testAdjustStockBatch_WithStaleVersion_ShouldReportVersionMismatch() {
+    testProduct.setVersion(5);
+    stubUpdateAllById(Map.of(testProductId, testProduct));
+
+    List<StockAdjustmentResultDTO> results = productService.adjustStock(List.of(
+        new StockAdjustmentDTO(testProductId, -1, 4L),
+        new StockAdjustmentDTO(testProductId, -1, 5L)), false);
+
+    assertEquals(StockAdjustmentStatus.VERSION_MISMATCH, results.get(0).getStatus());
+    assertEquals(StockAdjustmentStatus.APPLIED, results.get(1).getStatus());
+    assertEquals(9, testProduct.getQuantityInStock());
+  }
+
+  @Test
+  void testFindById_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
+    when(productRepository.findById(testProductId)).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> productService.findById(testProductId));
+  }
+
+  @Test
+  void testFindAllById_ShouldAnswerInRequestOrderAndMarkMissingIds() {
+    testProduct.setId(testProductId);
+    Product other = testProduct.toBuilder().id("other-id").build();
+    when(productRepository.findAllById(List.of("missing-id", testProductId, "other-id", testProductId)))
+        .thenReturn(List.of(testProduct, other, testProduct));
+
+    List<ProductLookupResultDTO> results = productService.findAllById(
+        List.of("missing-id", testProductId, "other-id", testProductId));
+
+    assertEquals(List.of("missing-id", testProductId, "other-id", testProductId),
+        results.stream().map(ProductLookupResultDTO::getId).toList());
+    assertEquals(List.of(false, true, true, true), results.stream().map(ProductLookupResultDTO::isFound).toList());
+    assertNull(results.get(0).getProduct());
+    assertEquals(other, results.get(2).getProduct());
   }
 
   @Test
@@ -230,54 +450,92 @@ class ProductServiceImplTest {
   }
 
   @Test
-  void testFindAllCategories_ShouldReturnUniqueCategories() {
-    Product product1 = Product.builder().category("Electronics").build();
-    Product product2 = Product.builder().category("Peripherals").build();
-    Product product3 = Product.builder().category("Electronics").build();
-    List<Product> products = Arrays.asList(product1, product2, product3);
+  void testSearch_WithScrollPosition_ShouldDelegateToRepository() {
+    Sort sort = Sort.by("name");
+    List<String> categories = Arrays.asList("Electronics");
+    Window<Product> expectedWindow = Window.from(Arrays.asList(testProduct), i -> ScrollPosition.keyset());
+
+    when(productRepository.findByNameOrCategoryOrQuantityInStock(
+        ScrollPosition.keyset(), sort, 10, "laptop", categories, AvailabilityStatus.ALL))
+        .thenReturn(expectedWindow);
+
+    Window<Product> result = productService.search(
+        ScrollPosition.keyset(), sort, 10, "laptop", categories, AvailabilityStatus.ALL);
+
+    assertEquals(expectedWindow, result);
+  }
+
+  @Test
+  void testExport_ShouldDelegateToRepository() {
+    List<String> categories = Arrays.asList("Electronics");
+    when(productRepository.streamByNameOrCategoryOrQuantityInStock("laptop", categories, AvailabilityStatus.IN_STOCK))
+        .thenReturn(Stream.of(testProduct));
+
+    List<Product> result = productService.export("laptop", categories, AvailabilityStatus.IN_STOCK).toList();
+
+    assertEquals(List.of(testProduct), result);
+  }
+
+  @Test
+  void testSearch_WithRepeatedEquivalentQuery_ShouldHitCache() {
+    Pageable pageable = PageRequest.of(0, 10);
+    Page<Product> expectedPage = new PageImpl<>(Arrays.asList(testProduct));
+    when(productRepository.findGeneration()).thenReturn(7L);
+    when(productRepository.findByNameOrCategoryOrQuantityInStock(any(Pageable.class), any(), any(), any()))
+        .thenReturn(expectedPage);
 
-    when(productRepository.findAll()).thenReturn(products);
+    productService.search(pageable, "Laptop", List.of("Electronics"), AvailabilityStatus.ALL);
+    Page<Product> result = productService.search(pageable, "laptop", List.of("ELECTRONICS"), null);
+
+    assertSame(expectedPage, result);
+    verify(productRepository, times(1)).findByNameOrCategoryOrQuantityInStock(any(Pageable.class), any(), any(), any());
+    assertEquals(1, productService.getSearchCacheStats().hits());
+    assertEquals(1, productService.getSearchCacheStats().misses());
+  }
+
+  @Test
+  void testSearch_AfterWrite_ShouldRecomputeResults() {
+    Pageable pageable = PageRequest.of(0, 10);
+    when(productRepository.findGeneration()).thenReturn(7L, 8L);
+    when(productRepository.findByNameOrCategoryOrQuantityInStock(any(Pageable.class), any(), any(), any()))
+        .thenReturn(new PageImpl<>(Arrays.asList(testProduct)));
+
+    productService.search(pageable, "laptop", null, AvailabilityStatus.ALL);
+    productService.search(pageable, "laptop", null, AvailabilityStatus.ALL);
+
+    verify(productRepository, times(2)).findByNameOrCategoryOrQuantityInStock(any(Pageable.class), any(), any(), any());
+    assertEquals(0, productService.getSearchCacheStats().hits());
+  }
+
+  @Test
+  void testFindAllCategories_ShouldDelegateToRepository() {
+    when(productRepository.findAllCategories()).thenReturn(Arrays.asList("Electronics", "Peripherals"));
 
     List<String> result = productService.findAllCategories();
 
     assertEquals(2, result.size());
     assertTrue(result.contains("Electronics"));
     assertTrue(result.contains("Peripherals"));
-    verify(productRepository).findAll();
+    verify(productRepository).findAllCategories();
+    verify(productRepository, never()).findAll();
   }
 
   @Test
   void testFindAllCategories_WhenEmptyRepository_ShouldReturnEmptyList() {
-    when(productRepository.findAll()).thenReturn(Arrays.asList());
+    when(productRepository.findAllCategories()).thenReturn(Arrays.asList());
 
     List<String> result = productService.findAllCategories();
 
     assertTrue(result.isEmpty());
-    verify(productRepository).findAll();
+    verify(productRepository).findAllCategories();
   }
 
   @Test
   void testGetInventoryMetrics_ShouldCalculateCorrectMetrics() {
-    Product electronics1 = Product.builder()
-        .category("Electronics")
-        .unitPrice(new BigDecimal("100.00"))
-        .quantityInStock(10)
-        .build();
-
-    Product electronics2 = Product.builder()
-        .category("Electronics")
-        .unitPrice(new BigDecimal("200.00"))
-        .quantityInStock(5)
-        .build();
-
-    Product peripherals = Product.builder()
-        .category("Peripherals")
-        .unitPrice(new BigDecimal("50.00"))
-        .quantityInStock(20)
-        .build();
-
-    List<Product> products = Arrays.asList(electronics1, electronics2, peripherals);
-    when(productRepository.findAll()).thenReturn(products);
+    List<CategoryInventory> inventory = Arrays.asList(
+        new CategoryInventory("Electronics", 2, 15, new BigDecimal("2000.00")),
+        new CategoryInventory("Peripherals", 1, 20, new BigDecimal("1000.00")));
+    when(productRepository.findInventoryByCategory()).thenReturn(inventory);
 
     List<InventoryMetricDTO> result = productService.getInventoryMetrics();
 
@@ -307,12 +565,13 @@ class ProductServiceImplTest {
     assertEquals(new BigDecimal("3000.00"), overallMetric.getTotalValueInStock());
     assertEquals(new BigDecimal("85.71"), overallMetric.getAveragePriceInStock());
 
-    verify(productRepository).findAll();
+    verify(productRepository).findInventoryByCategory();
+    verify(productRepository, never()).findAll();
   }
 
   @Test
   void testGetInventoryMetrics_WhenEmptyRepository_ShouldReturnOverallMetricOnly() {
-    when(productRepository.findAll()).thenReturn(Arrays.asList());
+    when(productRepository.findInventoryByCategory()).thenReturn(Arrays.asList());
 
     List<InventoryMetricDTO> result = productService.getInventoryMetrics();
 
@@ -324,29 +583,38 @@ class ProductServiceImplTest {
     assertEquals(BigDecimal.ZERO, overallMetric.getTotalValueInStock());
     assertEquals(BigDecimal.ZERO, overallMetric.getAveragePriceInStock());
 
-    verify(productRepository).findAll();
+    verify(productRepository).findInventoryByCategory();
   }
 
   @Test
-  void testGetInventoryMetrics_WhenZeroQuantityProducts_ShouldCalculateCorrectly() {
-    Product inStock = Product.builder()
-        .category("Electronics")
-        .unitPrice(new BigDecimal("100.00"))
-        .quantityInStock(10)
-        .build();
+  void testGetInventoryMetrics_WhenUnitsExceedIntRange_ShouldReportLongTotals() {
+    long unitsPerCategory = 1_500_000_000L;
+    List<CategoryInventory> inventory = Arrays.asList(
+        new CategoryInventory("Electronics", 1, unitsPerCategory, new BigDecimal("3000000000.00")),
+        new CategoryInventory("Storage", 1, unitsPerCategory, new BigDecimal("1500000000.00")));
+    when(productRepository.findInventoryByCategory()).thenReturn(inventory);
 
-    Product outOfStock = Product.builder()
-        .category("Electronics")
-        .unitPrice(new BigDecimal("200.00"))
-        .quantityInStock(0)
-        .build();
+    List<InventoryMetricDTO> result = productService.getInventoryMetrics();
+
+    InventoryMetricDTO overallMetric = result.stream()
+        .filter(m -> "Overall".equals(m.getCategory()))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(3_000_000_000L, overallMetric.getTotalProductsInStock());
+    assertEquals(new BigDecimal("4500000000.00"), overallMetric.getTotalValueInStock());
+    assertEquals(new BigDecimal("1.50"), overallMetric.getAveragePriceInStock());
+  }
 
-    List<Product> products = Arrays.asList(inStock, outOfStock);
-    when(productRepository.findAll()).thenReturn(products);
+  @Test
+  void testGetInventoryMetrics_WhenZeroQuantityCategory_ShouldReportZeroAverage() {
+    List<CategoryInventory> inventory = Arrays.asList(
+        new CategoryInventory("Electronics", 2, 10, new BigDecimal("1000.00")),
+        new CategoryInventory("Storage", 1, 0, new BigDecimal("0.00")));
+    when(productRepository.findInventoryByCategory()).thenReturn(inventory);
 
     List<InventoryMetricDTO> result = productService.getInventoryMetrics();
 
-    assertEquals(2, result.size());
+    assertEquals(3, result.size());
 
     InventoryMetricDTO electronicsMetric = result.stream()
         .filter(m -> "Electronics".equals(m.getCategory()))
@@ -356,6 +624,13 @@ class ProductServiceImplTest {
     assertEquals(new BigDecimal("1000.00"), electronicsMetric.getTotalValueInStock());
     assertEquals(new BigDecimal("100.00"), electronicsMetric.getAveragePriceInStock());
 
-    verify(productRepository).findAll();
+    InventoryMetricDTO storageMetric = result.stream()
+        .filter(m -> "Storage".equals(m.getCategory()))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(0, storageMetric.getTotalProductsInStock());
+    assertEquals(BigDecimal.ZERO, storageMetric.getAveragePriceInStock());
+
+    verify(productRepository).findInventoryByCategory();
   }
 }